@@ -0,0 +1,120 @@
+package com.ghostchu.crowdin.maven;
+
+import com.ghostchu.crowdin.CrowdinOTA;
+import com.ghostchu.crowdin.OTAManifest;
+import com.ghostchu.crowdin.OTAOptions;
+import com.ghostchu.crowdin.OTASnapshot;
+import com.ghostchu.crowdin.exception.OTAException;
+import com.ghostchu.crowdin.storage.MemoryCacheStorageProvider;
+import kong.unirest.Unirest;
+import kong.unirest.UnirestException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+/**
+ * Download a Crowdin distribution and write it as a {@link OTASnapshot} into the build output,
+ * so the snapshot is bundled in the jar and seeds the cache at startup.
+ */
+@Mojo(name = "snapshot", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, threadSafe = true)
+public class SnapshotMojo extends AbstractMojo {
+    /**
+     * The distribution URL, must be same as the one passed to CrowdinOTA at runtime.
+     */
+    @Parameter(property = "crowdinota.distributionUrl", required = true)
+    private String distributionUrl;
+    /**
+     * The folder to write the snapshot resource.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+    /**
+     * The resource name of the snapshot, must be same as {@link OTAOptions#setSnapshotResource(String)} at runtime.
+     */
+    @Parameter(property = "crowdinota.resource", defaultValue = OTASnapshot.DEFAULT_RESOURCE, required = true)
+    private String resource;
+    /**
+     * The maximum threads used to download translation files.
+     */
+    @Parameter(property = "crowdinota.downloadThreads", defaultValue = "16")
+    private int downloadThreads;
+    /**
+     * Write the snapshot even if some locales failed to download, instead of failing the build.
+     */
+    @Parameter(property = "crowdinota.allowIncomplete", defaultValue = "false")
+    private boolean allowIncomplete;
+    /**
+     * Skip the snapshot, e.g. for offline builds.
+     */
+    @Parameter(property = "crowdinota.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipped CrowdinOTA snapshot.");
+            return;
+        }
+        OTAOptions options = new OTAOptions()
+                .setDownloadThreads(downloadThreads)
+                .setCacheMaintenance(false)
+                // Never seed from a snapshot on the plugin classpath
+                .setSnapshotResource(null);
+        OTASnapshot snapshot;
+        try (CrowdinOTA crowdinOTA = new CrowdinOTA(distributionUrl, new MemoryCacheStorageProvider(), Unirest.primaryInstance(), options)) {
+            snapshot = OTASnapshot.capture(crowdinOTA);
+        } catch (OTAException | UnirestException e) {
+            throw new MojoExecutionException("Failed to download Crowdin distribution " + distributionUrl, e);
+        }
+        checkComplete(snapshot);
+        Path target = new File(outputDirectory, resource).toPath();
+        try {
+            Files.createDirectories(target.getParent());
+            // Write aside and rename, an interrupted build never leaves a truncated snapshot behind
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                snapshot.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write snapshot " + target, e);
+        }
+        int locales = snapshot.getManifest().getFiles().stream().mapToInt(file -> snapshot.getLocaleContents(file).size()).sum();
+        getLog().info("Wrote CrowdinOTA snapshot of " + locales + " locales at " + snapshot.getManifest().getTimestamp() + " to " + target);
+    }
+
+    /**
+     * Check every locale in the manifest was captured, the locales failed to download are skipped by capture.
+     *
+     * @param snapshot The captured snapshot.
+     * @throws MojoExecutionException Throws if some locales missing and incomplete snapshots not allowed.
+     */
+    private void checkComplete(@NotNull OTASnapshot snapshot) throws MojoExecutionException {
+        OTAManifest manifest = snapshot.getManifest();
+        int missing = 0;
+        for (int index = 0; index < manifest.getFiles().size(); index++) {
+            String fileName = manifest.getFiles().get(index);
+            Set<String> captured = snapshot.getLocaleContents(fileName).keySet();
+            for (String locale : manifest.getFilePaths(index).keySet()) {
+                if (captured.contains(locale)) continue;
+                getLog().warn("Locale " + locale + " of " + fileName + " failed to download and is missing from the snapshot.");
+                missing++;
+            }
+        }
+        if (missing > 0 && !allowIncomplete) {
+            throw new MojoExecutionException(missing + " locales failed to download, set crowdinota.allowIncomplete to write the incomplete snapshot anyway.");
+        }
+    }
+}
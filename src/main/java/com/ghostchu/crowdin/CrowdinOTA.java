@@ -1,34 +1,95 @@
 package com.ghostchu.crowdin;
 
 import com.ghostchu.crowdin.exception.OTAException;
-import com.google.gson.JsonElement;
+import com.ghostchu.crowdin.storage.CacheStorageProvider;
+import com.ghostchu.crowdin.storage.DiskCacheStorageProvider;
+import com.ghostchu.crowdin.storage.MemoryCacheStorageProvider;
+import com.ghostchu.crowdin.util.ForkJoinPoolUtil;
+import com.ghostchu.crowdin.util.LatencyTracker;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
+import kong.unirest.GetRequest;
 import kong.unirest.HttpResponse;
 import kong.unirest.Unirest;
+import kong.unirest.UnirestException;
 import kong.unirest.UnirestInstance;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.*;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class CrowdinOTA {
+public class CrowdinOTA implements AutoCloseable {
     private static final Logger LOG = Logger.getLogger("CrowdinOTA");
     protected final String distributionUrl;
     protected final UnirestInstance unirest;
+    /**
+     * The folder to put cache files, null if the caches are not stored in a folder
+     *
+     * @deprecated Caches are stored through {@link #storageProvider}.
+     */
+    @Deprecated
+    @Nullable
     protected final File cacheFolder;
-    protected JsonObject manifest;
+    protected final CacheStorageProvider storageProvider;
+    protected final OTAOptions options;
+    /**
+     * The executor for background refresh of stale locales
+     */
+    protected final ExecutorService refreshExecutor;
+    /**
+     * The executor to notify change listeners in order, off the download threads
+     */
+    protected final ExecutorService eventExecutor;
+    private final AtomicBoolean quotaCheckScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    /**
+     * The scheduler for periodic tasks such as saving access counts, null if nothing scheduled
+     */
+    @Nullable
+    protected final ScheduledExecutorService scheduler;
+    /**
+     * The observed latencies of translation downloads, used for hedging
+     */
+    protected final LatencyTracker latencyTracker = new LatencyTracker(128, 8);
+    /**
+     * The permits of hedged requests in flight, see {@link OTAOptions#setHedgeBudget(int)}
+     */
+    protected final Semaphore hedgePermits;
+    /**
+     * The build-time snapshot of this distribution, null if not bundled.
+     * Released once the file instances are seeded.
+     */
+    private OTASnapshot snapshot;
+    /**
+     * The manifest of the build-time snapshot, used if the manifest failed to download
+     */
+    @Nullable
+    protected final OTAManifest snapshotManifest;
+    /**
+     * The parsed manifest, was the raw manifest JSON before it is parsed into {@link OTAManifest},
+     * see {@link #getManifestJson()} for the old shape.
+     */
+    protected OTAManifest manifest;
     /**
      * The language mapping
      * CrowdinSyntaxName, Map(Syntax, CustomName)
      */
     protected Map<String, Map<String, String>> languageMapping;
-    private OTAInstance otaInstance;
+    private volatile OTAInstance otaInstance;
 
     /**
      * Create CrowdinOTA instance from a crowdin distribution URL.
@@ -39,15 +100,7 @@ public class CrowdinOTA {
      * @throws OTAException Throws a OTAException while failed during requesting or processing the manifest.
      */
     public CrowdinOTA(@NotNull String distributionUrl, @NotNull File cacheFolder) throws OTAException {
-        this.distributionUrl = distributionUrl;
-        if (this.distributionUrl.endsWith("/"))
-            throw new IllegalArgumentException("Distribution URL should not end with a slash.");
-        this.cacheFolder = cacheFolder;
-        this.unirest = Unirest.primaryInstance();
-        initCacheFolder();
-        fetchMetadata();
-        loadLanguageMapping();
-        createOTAInstance();
+        this(distributionUrl, cacheFolder, Unirest.primaryInstance());
     }
 
 
@@ -61,13 +114,68 @@ public class CrowdinOTA {
      * @throws OTAException Throws a OTAException while failed during requesting or processing manifest.
      */
     public CrowdinOTA(@NotNull String distributionUrl, @NotNull File cacheFolder, @NotNull UnirestInstance unirest) throws OTAException {
+        this(distributionUrl, cacheFolder, unirest, new OTAOptions());
+    }
+
+    /**
+     * Create CrowdinOTA instance from a crowdin distribution URL.
+     *
+     * @param distributionUrl The distribution URL.
+     *                        Example: <a href="https://distributions.crowdin.net/91b97508fdf19626f2977b7xrm4/">...</a>
+     * @param cacheFolder     The folder to put cache files
+     * @param unirest         The unirest instance for requesting
+     * @param options         The options for downloading and caching
+     * @throws OTAException Throws a OTAException while failed during requesting or processing manifest.
+     */
+    public CrowdinOTA(@NotNull String distributionUrl, @NotNull File cacheFolder, @NotNull UnirestInstance unirest, @NotNull OTAOptions options) throws OTAException {
+        this(distributionUrl, cacheFolder, new DiskCacheStorageProvider(cacheFolder, options.getFsyncPolicy()), unirest, options);
+    }
+
+    /**
+     * Create CrowdinOTA instance from a crowdin distribution URL.
+     *
+     * @param distributionUrl The distribution URL.
+     *                        Example: <a href="https://distributions.crowdin.net/91b97508fdf19626f2977b7xrm4/">...</a>
+     * @param storageProvider The storage backend for caches, e.g. {@link MemoryCacheStorageProvider} to never touch the filesystem
+     * @param unirest         The unirest instance for requesting
+     * @param options         The options for downloading and caching
+     * @throws OTAException Throws a OTAException while failed during requesting or processing manifest.
+     */
+    public CrowdinOTA(@NotNull String distributionUrl, @NotNull CacheStorageProvider storageProvider, @NotNull UnirestInstance unirest, @NotNull OTAOptions options) throws OTAException {
+        this(distributionUrl, null, storageProvider, unirest, options);
+    }
+
+    private CrowdinOTA(@NotNull String distributionUrl, @Nullable File cacheFolder, @NotNull CacheStorageProvider storageProvider, @NotNull UnirestInstance unirest, @NotNull OTAOptions options) throws OTAException {
         this.distributionUrl = distributionUrl;
+        if (this.distributionUrl.endsWith("/"))
+            throw new IllegalArgumentException("Distribution URL should not end with a slash.");
         this.unirest = unirest;
         this.cacheFolder = cacheFolder;
-        initCacheFolder();
+        this.storageProvider = storageProvider;
+        this.options = options;
+        this.refreshExecutor = ForkJoinPoolUtil.createDaemonExecutorService(options.getRefreshThreads(), "CrowdinOTA-Refresh");
+        this.hedgePermits = new Semaphore(options.getHedgeBudget());
+        this.eventExecutor = ForkJoinPoolUtil.createDaemonExecutorService(1, "CrowdinOTA-Event");
+        this.snapshot = loadSnapshot();
+        this.snapshotManifest = snapshot == null ? null : snapshot.getManifest();
         fetchMetadata();
-        loadLanguageMapping();
         createOTAInstance();
+        // Seeded into the file caches, don't pin the contents on heap
+        this.snapshot = null;
+        if (options.isCacheMaintenance()) {
+            // Run after the startup downloads, they still write in background with a hot set
+            CompletableFuture.allOf(otaInstance.listFiles().stream()
+                            .map(fileName -> otaInstance.getFileInstance(fileName).getInitialDownload())
+                            .toArray(CompletableFuture[]::new))
+                    .whenCompleteAsync((ignored, throwable) -> maintainCache(), refreshExecutor);
+        }
+        Duration flushInterval = options.getAccessStatsFlushInterval();
+        if (flushInterval != null) {
+            this.scheduler = ForkJoinPoolUtil.createDaemonScheduledExecutorService("CrowdinOTA-Scheduler");
+            scheduler.scheduleWithFixedDelay(this::flushAccessStats, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
     }
 
     /**
@@ -79,6 +187,34 @@ public class CrowdinOTA {
         return this.otaInstance;
     }
 
+    /**
+     * Stop the background refreshes and periodic tasks, then save the pending caches and access counts.
+     * The cached translations are still readable, but no longer refreshed.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        // Drops the periodic flush, which keeps this instance reachable
+        if (scheduler != null) scheduler.shutdownNow();
+        // Queued refreshes still run, new ones are rejected
+        refreshExecutor.shutdown();
+        eventExecutor.shutdown();
+        for (String fileName : otaInstance.listFiles()) {
+            OTAFileCache fileCache = otaInstance.getFileInstance(fileName).getFileCache();
+            fileCache.commit();
+            fileCache.saveMemory();
+        }
+    }
+
+    /**
+     * Gets the options of this CrowdinOTA instance.
+     *
+     * @return The options.
+     */
+    public @NotNull OTAOptions getOptions() {
+        return this.options;
+    }
+
     /**
      * Creates the OTAInstance.
      *
@@ -94,7 +230,36 @@ public class CrowdinOTA {
      * @return The timestamp of this manifest.
      */
     public long getTimestamp() {
-        return manifest.get("timestamp").getAsLong();
+        return manifest.getTimestamp();
+    }
+
+    /**
+     * Gets the manifest of this distribution
+     *
+     * @return The manifest.
+     */
+    public @NotNull OTAManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Gets the manifest as JSON, in the shape of the raw manifest {@code manifest} field used to hold.
+     * Built on each call, only the fields kept by {@link OTAManifest} are included.
+     *
+     * @return The manifest JSON.
+     * @deprecated Use {@link #getManifest()} instead.
+     */
+    @Deprecated
+    @NotNull
+    protected JsonObject getManifestJson() {
+        StringWriter writer = new StringWriter();
+        try {
+            manifest.write(writer);
+        } catch (IOException e) {
+            // Never thrown by StringWriter
+            throw new IllegalStateException(e);
+        }
+        return JsonParser.parseString(writer.toString()).getAsJsonObject();
     }
 
     /**
@@ -137,64 +302,182 @@ public class CrowdinOTA {
     public String mapLanguageCustom(@NotNull String customCode, @NotNull String customSyntax) {
         for (Map.Entry<String, Map<String, String>> entry : this.languageMapping.entrySet()) {
             String customCodeStored = entry.getValue().get(customSyntax);
-            if (customCodeStored.equals(customCode)) return entry.getKey();
+            if (customCode.equals(customCodeStored)) return entry.getKey();
         }
         return customCode;
     }
 
     /**
-     * Load the language mapping
-     *
-     * @throws OTAException When manifest invalid
+     * Remove the caches unreferenced by the current manifest, and evict the least recently used locales
+     * until the cache quota satisfied. I/O blocking, should be called off the hot path.
      */
-    private void loadLanguageMapping() throws OTAException {
-        JsonObject obj = this.manifest.getAsJsonObject("language_mapping");
-        if (obj == null) return;
-        this.languageMapping = new LinkedHashMap<>();
-        for (Map.Entry<String, JsonElement> entry : obj.entrySet()) {
-            // load the mapping
-            String crowdinSyntaxCode = entry.getKey();
-            if (!entry.getValue().isJsonObject()) {
-                throw new OTAException("One of element in language_mapping's value not a json object.");
-            }
-            Map<String, String> mappingSet = new LinkedHashMap<>();
-            for (Map.Entry<String, JsonElement> mappingEntry : entry.getValue().getAsJsonObject().entrySet()) {
-                String customSyntaxName = mappingEntry.getKey();
-                String customSyntaxCode = mappingEntry.getValue().getAsString();
-                mappingSet.put(customSyntaxName, customSyntaxCode);
+    public void maintainCache() {
+        for (String fileName : manifest.getFiles()) {
+            OTAFileInstance fileInstance = otaInstance.getFileInstance(fileName);
+            if (fileInstance == null) continue;
+            int removed = fileInstance.removeUnreferencedLocales();
+            if (removed > 0) LOG.info("Removed " + removed + " unreferenced locales from cache of " + fileName);
+            fileInstance.getFileCache().saveMemory();
+        }
+        int removedFiles = storageProvider.retainFiles(manifest.getFiles());
+        if (removedFiles > 0) LOG.info("Removed " + removedFiles + " unreferenced file caches.");
+        enforceCacheQuota();
+    }
+
+    /**
+     * Save the changed locale access counts of all files.
+     */
+    private void flushAccessStats() {
+        for (String fileName : manifest.getFiles()) {
+            OTAFileInstance fileInstance = otaInstance.getFileInstance(fileName);
+            if (fileInstance != null) fileInstance.flushAccessStats();
+        }
+    }
+
+    /**
+     * Schedule a cache quota check after new translations written, coalesced with the pending check.
+     */
+    void requestQuotaEnforcement() {
+        // Still constructing, the maintenance will run after the startup downloads
+        if (otaInstance == null || !options.isCacheMaintenance() || options.getCacheQuota() <= 0) return;
+        if (!quotaCheckScheduled.compareAndSet(false, true)) return;
+        try {
+            refreshExecutor.execute(() -> {
+                quotaCheckScheduled.set(false);
+                enforceCacheQuota();
+            });
+        } catch (RejectedExecutionException e) {
+            quotaCheckScheduled.set(false);
+        }
+    }
+
+    /**
+     * Evict the least recently used locales across all files until the total size fits the quota.
+     */
+    private void enforceCacheQuota() {
+        long quota = options.getCacheQuota();
+        if (quota <= 0) return;
+        List<CacheEntry> entries = new ArrayList<>();
+        for (String fileName : manifest.getFiles()) {
+            OTAFileInstance fileInstance = otaInstance.getFileInstance(fileName);
+            if (fileInstance == null) continue;
+            OTAFileCache fileCache = fileInstance.getFileCache();
+            for (Map.Entry<String, Long> sizeEntry : fileCache.getCacheSizes().entrySet()) {
+                OTAFileCache.CacheRecord record = fileCache.getCacheRecord(sizeEntry.getKey());
+                long lastAccess = record == null ? 0 : record.getLastAccess();
+                entries.add(new CacheEntry(fileInstance, sizeEntry.getKey(), sizeEntry.getValue(), lastAccess));
             }
-            this.languageMapping.put(crowdinSyntaxCode, mappingSet);
         }
+        Set<OTAFileInstance> changed = new HashSet<>();
+        int evicted = 0;
+        for (CacheEntry entry : selectEvictions(entries, quota)) {
+            // Skipped if downloading, checked again after the download
+            if (!entry.fileInstance().evictLocale(entry.crowdinSyntaxCode())) continue;
+            changed.add(entry.fileInstance());
+            evicted++;
+        }
+        if (evicted == 0) return;
+        changed.forEach(fileInstance -> fileInstance.getFileCache().saveMemory());
+        LOG.info("Evicted " + evicted + " least recently used locales to fit the cache quota.");
+    }
 
+    /**
+     * Select the least recently used entries to evict until the total size fits the quota.
+     *
+     * @param entries The cached entries.
+     * @param quota   The quota in bytes, 0 for unlimited.
+     * @return The entries to evict, least recently used first.
+     */
+    @NotNull
+    static List<CacheEntry> selectEvictions(@NotNull List<CacheEntry> entries, long quota) {
+        if (quota <= 0) return List.of();
+        long totalSize = entries.stream().mapToLong(CacheEntry::size).sum();
+        List<CacheEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(CacheEntry::lastAccess));
+        List<CacheEntry> evictions = new ArrayList<>();
+        for (CacheEntry entry : sorted) {
+            if (totalSize <= quota) break;
+            evictions.add(entry);
+            totalSize -= entry.size();
+        }
+        return evictions;
+    }
+
+    /**
+     * Creates a GET request with the configured timeouts.
+     *
+     * @param url The request url.
+     * @return The request.
+     */
+    @NotNull
+    protected GetRequest request(@NotNull String url) {
+        GetRequest request = unirest.get(url);
+        if (options.getConnectTimeout() != null)
+            request = request.connectTimeout((int) options.getConnectTimeout().toMillis());
+        if (options.getReadTimeout() != null)
+            request = request.socketTimeout((int) options.getReadTimeout().toMillis());
+        return request;
+    }
+
+    /**
+     * Gets the build-time snapshot of this distribution, only available while the file instances are created.
+     *
+     * @return The snapshot, null if not bundled or already seeded.
+     */
+    @Nullable
+    OTASnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Load the build-time snapshot from classpath.
+     *
+     * @return The snapshot, null if disabled, not bundled, invalid or captured from another distribution.
+     */
+    @Nullable
+    private OTASnapshot loadSnapshot() {
+        String resource = options.getSnapshotResource();
+        if (resource == null) return null;
+        try {
+            OTASnapshot loaded = OTASnapshot.load(getClass().getClassLoader(), resource);
+            if (loaded == null) return null;
+            if (!loaded.getDistributionUrl().equals(this.distributionUrl)) {
+                LOG.warning("Ignored snapshot " + resource + " which captured from another distribution: " + loaded.getDistributionUrl());
+                return null;
+            }
+            LOG.info("Loaded snapshot " + resource + " captured at " + loaded.getManifest().getTimestamp());
+            return loaded;
+        } catch (OTAException e) {
+            LOG.log(Level.WARNING, "Failed to load snapshot " + resource, e);
+            return null;
+        }
     }
+
     /**
      * Fetch metadata from Crowdin and cache in local.
+     * Falls back to the snapshot manifest if the download failed.
      */
     private void fetchMetadata() throws OTAException {
+        try {
+            this.manifest = downloadManifest();
+        } catch (OTAException | UnirestException e) {
+            if (snapshotManifest == null) throw e;
+            LOG.log(Level.WARNING, "Failed to download Crowdin distribution manifest, using the snapshot manifest instead.", e);
+            this.manifest = snapshotManifest;
+        }
+        this.languageMapping = manifest.getLanguageMapping();
+    }
+
+    @NotNull
+    private OTAManifest downloadManifest() throws OTAException {
         LOG.info("Downloading Crowdin distribution manifest from remote server...");
-        HttpResponse<String> response = unirest.get(this.distributionUrl + "/manifest.json").asString();
+        HttpResponse<String> response = request(this.distributionUrl + "/manifest.json").asString();
         if (!response.isSuccess()) {
             throw new OTAException("Failed to get Crowdin distribution manifest: " + response.getStatus());
         }
-        String manifestJson = response.getBody();
-        try {
-            JsonElement element = JsonParser.parseString(manifestJson);
-            if (!element.isJsonObject())
-                throw new OTAException("Failed to parse Crowdin distribution manifest: root path must is a json object.");
-            this.manifest = element.getAsJsonObject();
-        } catch (JsonSyntaxException e) {
-            throw new OTAException("Failed to parse Crowdin distribution manifest: " + e.getMessage(), e);
-        }
+        return OTAManifest.parse(new StringReader(response.getBody()));
     }
 
-    private void initCacheFolder() {
-        // check parent folder if exists
-        if (!cacheFolder.exists()) {
-            if (!cacheFolder.mkdirs())
-                throw new IllegalStateException(new IOException("Cannot create cache folder."));
-        } else {
-            if (!cacheFolder.isDirectory())
-                throw new IllegalStateException(new IOException("Cannot create cache folder, file exists but not a directory."));
-        }
+    record CacheEntry(OTAFileInstance fileInstance, String crowdinSyntaxCode, long size, long lastAccess) {
     }
 }
@@ -0,0 +1,20 @@
+package com.ghostchu.crowdin;
+
+/**
+ * When the cache files should be flushed to the storage device before published.
+ */
+public enum FsyncPolicy {
+    /**
+     * Never fsync, files are still published atomically but may be lost on power failure.
+     */
+    NONE,
+    /**
+     * Fsync and publish every file as soon as it written.
+     */
+    ALWAYS,
+    /**
+     * Files written during a refresh are fsynced and published together,
+     * with one directory fsync and one memory DB write for the whole batch.
+     */
+    BATCH
+}
@@ -1,8 +1,11 @@
 package com.ghostchu.crowdin;
 
 import com.ghostchu.crowdin.exception.OTAException;
+import com.ghostchu.crowdin.storage.CacheStorage;
+import com.ghostchu.crowdin.storage.DiskCacheStorage;
 import com.ghostchu.crowdin.util.DigestUtil;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -10,24 +13,64 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class OTAFileCache {
     private static final Gson gson = new Gson();
+    private static final String MEMORY_INDEX = "memory";
+    private static final String ACCESS_INDEX = "access";
+    private static final String EVICTED_INDEX = "evicted";
+    /**
+     * The maximum pending writes in a batch, the batch is committed once reached
+     */
+    private static final int BATCH_MAX_WRITES = 16;
+    /**
+     * The default maximum locales to keep the content in memory
+     */
+    static final int DEFAULT_CONTENT_MEMORY_SIZE = 8;
     private final Logger LOG;
-    private final File rootCacheFolder;
-    private final File memoryDBFile;
+    private final CacheStorage storage;
     /**
      * CacheMemory
      * CrowdinSyntaxCode - CacheRecord
      * Encoding by Gson to JSON format.
      */
     private Map<String, CacheRecord> cacheMemory;
+    /**
+     * AccessMemory
+     * CrowdinSyntaxCode - Access count
+     * Encoding by Gson to JSON format.
+     */
+    private Map<String, Long> accessMemory;
+    /**
+     * The locales evicted to fit the cache quota, they are only downloaded again on demand.
+     */
+    private final Set<String> evictedLocales = ConcurrentHashMap.newKeySet();
+    /**
+     * Whether the access counts changed since saved
+     */
+    private volatile boolean accessDirty;
+    /**
+     * ContentMemory
+     * CrowdinSyntaxCode - UTF-8 content bytes which already verified against the CacheRecord.
+     * Only the most recently read locales are kept, they are served without reading the storage again.
+     * The arrays are shared with readers and must not be modified.
+     */
+    private final Map<String, byte[]> contentMemory;
+    /**
+     * Guards the content memory against the records replaced during loading
+     */
+    private final Object contentLock = new Object();
+    /**
+     * The writes waiting to be written into storage, already visible to readers.
+     * CrowdinSyntaxCode - PendingWrite, the later write of same locale wins.
+     */
+    private final Map<String, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private int batchDepth = 0;
+    private volatile CommitListener commitListener;
 
     /**
      * Create a OTAFileCache instance to manage the files on the filesystem and caches.
@@ -36,15 +79,53 @@ public class OTAFileCache {
      * @throws OTAException Throws a OTAException while failed to create the cache folder.
      */
     public OTAFileCache(@NotNull File rootCacheFolder) throws OTAException {
-        this.LOG = Logger.getLogger("OTAFileCache - " + rootCacheFolder.getName());
-        this.rootCacheFolder = rootCacheFolder;
-        initCacheFolder();
-        this.memoryDBFile = new File(rootCacheFolder, "memory.json");
+        this(rootCacheFolder, FsyncPolicy.BATCH);
+    }
+
+    /**
+     * Create a OTAFileCache instance to manage the files on the filesystem and caches.
+     *
+     * @param rootCacheFolder The root folder to store the cache files.
+     * @param fsyncPolicy     When the cache files should be flushed to the storage device.
+     * @throws OTAException Throws a OTAException while failed to create the cache folder.
+     */
+    public OTAFileCache(@NotNull File rootCacheFolder, @NotNull FsyncPolicy fsyncPolicy) throws OTAException {
+        this(new DiskCacheStorage(rootCacheFolder, fsyncPolicy));
+    }
+
+    /**
+     * Create a OTAFileCache instance to manage the caches in the storage.
+     *
+     * @param storage The storage backend to store the caches.
+     */
+    public OTAFileCache(@NotNull CacheStorage storage) {
+        this(storage, DEFAULT_CONTENT_MEMORY_SIZE);
+    }
+
+    /**
+     * Create a OTAFileCache instance to manage the caches in the storage.
+     *
+     * @param storage           The storage backend to store the caches.
+     * @param contentMemorySize The maximum locales to keep the content in memory, 0 to always read from storage.
+     */
+    public OTAFileCache(@NotNull CacheStorage storage, int contentMemorySize) {
+        if (contentMemorySize < 0)
+            throw new IllegalArgumentException("The content memory size must not be negative");
+        this.LOG = Logger.getLogger("OTAFileCache - " + storage.getName());
+        this.storage = storage;
+        this.contentMemory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > contentMemorySize;
+            }
+        });
         loadMemory();
+        loadAccessMemory();
+        loadEvictedLocales();
     }
 
     /**
-     * Read the cache from the disk.
+     * Read the cache from the storage.
      *
      * @param crowdinSyntaxCode The crowdin syntax code.
      * @param timestamp         The timestamp of the manifest.
@@ -53,36 +134,301 @@ public class OTAFileCache {
      */
     @Nullable
     public String readCache(@NotNull String crowdinSyntaxCode, long timestamp, boolean allowExpired) {
-        CacheStatus status = getCacheStatus(crowdinSyntaxCode, timestamp);
-        // EXPIRED
-        if (!allowExpired) {
-            if (status == CacheStatus.CACHE_EXPIRED) return null;
+        byte[] content = readCacheBytes(crowdinSyntaxCode, timestamp, allowExpired);
+        if (content == null) return null;
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the cache as UTF-8 bytes without copying.
+     * The content is kept in memory for the next read, see {@link OTAOptions#setContentMemorySize(int)}.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @param timestamp         The timestamp of the manifest.
+     * @param allowExpired      Whether to allow expired cache. False will return null for outdated cache.
+     * @return The cache content, shared with other readers and must not be modified.
+     */
+    byte @Nullable [] readCacheBytes(@NotNull String crowdinSyntaxCode, long timestamp, boolean allowExpired) {
+        PendingWrite pending = getPendingWrite(crowdinSyntaxCode);
+        if (pending != null) {
+            if (!allowExpired && pending.timestamp < timestamp) return null;
+            return pending.content;
         }
-        // INVALID
-        if (status == CacheStatus.CACHE_INVALID) return null;
         // NOT_CACHED
-        if (status == CacheStatus.NOT_CACHED) return null;
-        // VALID
-        return _getContent(crowdinSyntaxCode);
+        CacheRecord record = cacheMemory.get(crowdinSyntaxCode);
+        if (record == null) return null;
+        // EXPIRED
+        if (!allowExpired && record.manifestTimestamp < timestamp) return null;
+        // VALID, null if INVALID
+        return getVerifiedContent(crowdinSyntaxCode, record, true);
     }
 
     /**
-     * Write the cache into disk and update memory DB.
+     * Write the cache into storage and update memory DB.
      *
      * @param crowdinSyntaxCode The crowdin syntax code.
      * @param fileContent       The file content.
      * @param timestamp         The timestamp of the manifest.
      */
     public void writeCache(@NotNull String crowdinSyntaxCode, @NotNull String fileContent, long timestamp) {
-        _writeContent(crowdinSyntaxCode, fileContent);
-        // Generate SHA-1 hash
-        String sha1 = DigestUtil.sha1(fileContent);
-        // Write to memory
-        cacheMemory.put(crowdinSyntaxCode, new CacheRecord(timestamp, sha1));
-        // Save the memory to disk.
+        writeCache(crowdinSyntaxCode, fileContent.getBytes(StandardCharsets.UTF_8), timestamp);
+    }
+
+    /**
+     * Write the cache into storage and update memory DB.
+     * The content is readable once this method returns. It is written into storage atomically,
+     * and the memory DB in storage only changes after that.
+     * Within a batch, the storage writes are grouped and flushed together.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @param fileContent       The UTF-8 file content, must not be modified after written.
+     * @param timestamp         The timestamp of the manifest.
+     */
+    public void writeCache(@NotNull String crowdinSyntaxCode, byte @NotNull [] fileContent, long timestamp) {
+        CommitListener listener = this.commitListener;
+        // Keep the replaced content for the listener before it is replaced
+        byte[] oldContent = listener == null ? null : peekContent(crowdinSyntaxCode);
+        boolean batched;
+        synchronized (pendingWrites) {
+            pendingWrites.put(crowdinSyntaxCode, new PendingWrite(crowdinSyntaxCode, fileContent, timestamp));
+            evictedLocales.remove(crowdinSyntaxCode);
+            batched = batchDepth > 0 && storage.isBatchWrites() && pendingWrites.size() < BATCH_MAX_WRITES;
+        }
+        if (listener != null) listener.onCommit(crowdinSyntaxCode, oldContent, fileContent);
+        if (!batched) commit();
+    }
+
+    /**
+     * Start a batch, the storage writes will be flushed together on {@link #commit()}, {@link #endBatch()}
+     * or once enough writes pending. The writes are readable immediately regardless of the batch.
+     * Batches only take effect if the storage prefers batch writes.
+     */
+    public void beginBatch() {
+        synchronized (pendingWrites) {
+            batchDepth++;
+        }
+    }
+
+    /**
+     * End a batch and write the pending writes into storage.
+     */
+    public void endBatch() {
+        synchronized (pendingWrites) {
+            if (batchDepth > 0) batchDepth--;
+        }
+        commit();
+    }
+
+    /**
+     * Write the pending writes into storage, then update the memory DB.
+     */
+    public synchronized void commit() {
+        List<PendingWrite> writes;
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) return;
+            writes = new ArrayList<>(pendingWrites.values());
+        }
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        writes.forEach(write -> entries.put(write.crowdinSyntaxCode, write.content));
+        try {
+            storage.write(entries);
+        } catch (IOException e) {
+            // Records unchanged and writes still pending, the partially written entries will be detected by hash.
+            LOG.log(Level.WARNING, "IOException while write the cache", e);
+            return;
+        }
+        for (PendingWrite write : writes) {
+            // Write to memory, the content only stays in memory if it was read recently
+            synchronized (contentLock) {
+                contentMemory.replace(write.crowdinSyntaxCode, write.content);
+                cacheMemory.put(write.crowdinSyntaxCode, new CacheRecord(write.timestamp, DigestUtil.sha1(write.content)));
+            }
+            synchronized (pendingWrites) {
+                // Keep the newer write of same locale pending
+                pendingWrites.remove(write.crowdinSyntaxCode, write);
+            }
+        }
+        // Save the memory to storage.
         saveMemory();
     }
 
+    /**
+     * Gets the pending write of the specific locale.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @return The pending write, null if none.
+     */
+    @Nullable
+    private PendingWrite getPendingWrite(@NotNull String crowdinSyntaxCode) {
+        synchronized (pendingWrites) {
+            return pendingWrites.get(crowdinSyntaxCode);
+        }
+    }
+
+    /**
+     * Gets the current content regardless of expiry, without keeping it in memory.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @return The content, null if not cached or invalid.
+     */
+    private byte @Nullable [] peekContent(@NotNull String crowdinSyntaxCode) {
+        PendingWrite pending = getPendingWrite(crowdinSyntaxCode);
+        if (pending != null) return pending.content;
+        CacheRecord record = cacheMemory.get(crowdinSyntaxCode);
+        if (record == null) return null;
+        return getVerifiedContent(crowdinSyntaxCode, record, false);
+    }
+
+    /**
+     * Sets the listener to be called after writes become readable.
+     *
+     * @param commitListener The listener, null to remove.
+     */
+    void setCommitListener(@Nullable CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    /**
+     * Increase the access count of the specific locale.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     */
+    public void recordAccess(@NotNull String crowdinSyntaxCode) {
+        accessMemory.merge(crowdinSyntaxCode, 1L, Long::sum);
+        accessDirty = true;
+        CacheRecord record = cacheMemory.get(crowdinSyntaxCode);
+        if (record != null) record.lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the access count of the specific locale.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @return The access count, 0 if never accessed.
+     */
+    public long getAccessCount(@NotNull String crowdinSyntaxCode) {
+        return accessMemory.getOrDefault(crowdinSyntaxCode, 0L);
+    }
+
+    /**
+     * Save the access counts from memory to storage.
+     */
+    public synchronized void saveAccessMemory() {
+        if (!storage.isPersistIndexes()) return;
+        // Cleared before serializing, the accesses recorded during saving will be saved next time
+        accessDirty = false;
+        try {
+            storage.saveIndex(ACCESS_INDEX, gson.toJson(accessMemory), false);
+        } catch (IOException e) {
+            accessDirty = true;
+            LOG.log(Level.WARNING, "Failed to save access counts.", e);
+        }
+    }
+
+    /**
+     * Gets whether the access counts changed since saved.
+     *
+     * @return true if the access counts need to be saved.
+     */
+    boolean isAccessDirty() {
+        return accessDirty;
+    }
+
+    /**
+     * Gets the cache record of the specific locale.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @return The cache record, null if not cached.
+     */
+    @Nullable
+    CacheRecord getCacheRecord(@NotNull String crowdinSyntaxCode) {
+        return cacheMemory.get(crowdinSyntaxCode);
+    }
+
+    /**
+     * Gets the size of the cached locales in the storage.
+     *
+     * @return The cached locales and their size in bytes.
+     */
+    @NotNull
+    Map<String, Long> getCacheSizes() {
+        try {
+            Map<String, Long> sizes = storage.list();
+            sizes.keySet().retainAll(cacheMemory.keySet());
+            return sizes;
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to list the cache", e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Remove the cached locales which not in the given locales, include the entries not logged into memory.
+     *
+     * @param crowdinSyntaxCodes The locales to retain.
+     * @return The amount of removed locales.
+     */
+    synchronized int retainLocales(@NotNull Collection<String> crowdinSyntaxCodes) {
+        int removed = 0;
+        try {
+            for (String crowdinSyntaxCode : storage.list().keySet()) {
+                if (crowdinSyntaxCodes.contains(crowdinSyntaxCode)) continue;
+                remove(crowdinSyntaxCode);
+                removed++;
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to list the cache", e);
+        }
+        synchronized (pendingWrites) {
+            pendingWrites.keySet().removeIf(crowdinSyntaxCode -> !crowdinSyntaxCodes.contains(crowdinSyntaxCode));
+        }
+        cacheMemory.keySet().removeIf(crowdinSyntaxCode -> !crowdinSyntaxCodes.contains(crowdinSyntaxCode));
+        accessMemory.keySet().removeIf(crowdinSyntaxCode -> !crowdinSyntaxCodes.contains(crowdinSyntaxCode));
+        evictedLocales.removeIf(crowdinSyntaxCode -> !crowdinSyntaxCodes.contains(crowdinSyntaxCode));
+        return removed;
+    }
+
+    /**
+     * Evict the specific locale to fit the cache quota, it won't be downloaded again until requested.
+     * The memory DB need to be saved by caller.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     */
+    synchronized void evict(@NotNull String crowdinSyntaxCode) {
+        remove(crowdinSyntaxCode);
+        evictedLocales.add(crowdinSyntaxCode);
+    }
+
+    /**
+     * Gets whether the specific locale was evicted to fit the cache quota and not downloaded since.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     * @return true if evicted.
+     */
+    boolean isEvicted(@NotNull String crowdinSyntaxCode) {
+        return evictedLocales.contains(crowdinSyntaxCode);
+    }
+
+    /**
+     * Remove the specific locale from memory and storage.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax code.
+     */
+    private void remove(@NotNull String crowdinSyntaxCode) {
+        synchronized (pendingWrites) {
+            pendingWrites.remove(crowdinSyntaxCode);
+        }
+        synchronized (contentLock) {
+            cacheMemory.remove(crowdinSyntaxCode);
+            contentMemory.remove(crowdinSyntaxCode);
+        }
+        try {
+            storage.delete(crowdinSyntaxCode);
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "IOException while evict the cache", e);
+        }
+    }
+
     /**
      * Gets the specific cache status
      *
@@ -92,15 +438,14 @@ public class OTAFileCache {
      */
     @NotNull
     public CacheStatus getCacheStatus(@NotNull String crowdinSyntaxCode, long timestamp) {
+        // Lookup the writes not in storage yet
+        PendingWrite pending = getPendingWrite(crowdinSyntaxCode);
+        if (pending != null) return pending.timestamp < timestamp ? CacheStatus.CACHE_EXPIRED : CacheStatus.WORKING;
         // Lookup cache memory
         CacheRecord record = cacheMemory.get(crowdinSyntaxCode);
         if (record == null) return CacheStatus.NOT_CACHED;
-        // Check if the file exists
-        String fileContent = _getContent(crowdinSyntaxCode);
-        if (fileContent == null) return CacheStatus.CACHE_INVALID;
-        // Verify SHA1 hash
-        String sha1 = DigestUtil.sha1(fileContent);
-        if (!sha1.equals(record.sha1)) return CacheStatus.CACHE_INVALID;
+        // Check if the entry exists and verify SHA1 hash
+        if (getVerifiedContent(crowdinSyntaxCode, record, false) == null) return CacheStatus.CACHE_INVALID;
         // Verify expired
         if (record.manifestTimestamp < timestamp) return CacheStatus.CACHE_EXPIRED;
         // All good!
@@ -108,86 +453,137 @@ public class OTAFileCache {
     }
 
     /**
-     * Load the content from file
+     * Gets the cache status and the valid content in one pass, so the content is read and verified only once.
+     * The valid content is kept in memory for the next read.
+     *
+     * @param crowdinSyntaxCode The Crowdin syntax language code
+     * @param timestamp         The timestamp of the manifest.
+     * @return The cache status, with the content if {@link CacheStatus#WORKING} or {@link CacheStatus#CACHE_EXPIRED}.
+     */
+    @NotNull
+    CacheLookup lookup(@NotNull String crowdinSyntaxCode, long timestamp) {
+        PendingWrite pending = getPendingWrite(crowdinSyntaxCode);
+        if (pending != null) {
+            return new CacheLookup(pending.timestamp < timestamp ? CacheStatus.CACHE_EXPIRED : CacheStatus.WORKING, pending.content);
+        }
+        CacheRecord record = cacheMemory.get(crowdinSyntaxCode);
+        if (record == null) return new CacheLookup(CacheStatus.NOT_CACHED, null);
+        byte[] content = getVerifiedContent(crowdinSyntaxCode, record, true);
+        if (content == null) return new CacheLookup(CacheStatus.CACHE_INVALID, null);
+        return new CacheLookup(record.manifestTimestamp < timestamp ? CacheStatus.CACHE_EXPIRED : CacheStatus.WORKING, content);
+    }
+
+    /**
+     * Gets the content which matches the record SHA-1 hash.
+     * The content in memory is trusted, otherwise it is loaded from storage and verified.
      *
      * @param crowdinSyntaxCode The crowdin syntax code
-     * @return The content of the file, null if IOException or not exists.
+     * @param record            The cache record
+     * @param retain            Whether to keep the loaded content in memory
+     * @return The verified content, null if not exists or hash mismatched.
      */
-    @Nullable
-    private String _getContent(@NotNull String crowdinSyntaxCode) {
-        File file = new File(this.rootCacheFolder, crowdinSyntaxCode);
-        if (!file.exists()) return null;
-        try {
-            return Files.readString(file.toPath(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            LOG.log(Level.FINE, "File exists but not readable.", e);
-            return null;
+    private byte @Nullable [] getVerifiedContent(@NotNull String crowdinSyntaxCode, @NotNull CacheRecord record, boolean retain) {
+        byte[] content = contentMemory.get(crowdinSyntaxCode);
+        if (content != null) return content;
+        content = _getContent(crowdinSyntaxCode);
+        if (content == null) return null;
+        if (!DigestUtil.sha1(content).equals(record.sha1)) return null;
+        if (retain) {
+            synchronized (contentLock) {
+                // Don't keep the content if the record replaced during loading
+                if (cacheMemory.get(crowdinSyntaxCode) == record) contentMemory.putIfAbsent(crowdinSyntaxCode, content);
+            }
         }
+        return content;
     }
 
     /**
-     * Write the content info file
+     * Load the content from storage
      *
      * @param crowdinSyntaxCode The crowdin syntax code
+     * @return The content of the entry, null if IOException or not exists.
      */
-    private void _writeContent(@NotNull String crowdinSyntaxCode, @NotNull String content) {
-        File file = new File(this.rootCacheFolder, crowdinSyntaxCode);
+    private byte @Nullable [] _getContent(@NotNull String crowdinSyntaxCode) {
         try {
-            if (!file.exists()) {
-                if (!file.createNewFile()) {
-                    LOG.fine("Failed to create file: " + file.getAbsolutePath() + ", giving up...");
-                }
-            }
-            Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+            return storage.read(crowdinSyntaxCode);
         } catch (IOException e) {
-            LOG.log(Level.FINE, "IOException while write the cache", e);
+            LOG.log(Level.FINE, "Entry exists but not readable.", e);
+            return null;
         }
     }
 
     /**
-     * Save the memory DB from memory to disk.
+     * Save the memory DB from memory to storage.
      */
-    private void saveMemory() {
+    synchronized void saveMemory() {
+        if (!storage.isPersistIndexes()) return;
         try {
-            Files.writeString(memoryDBFile.toPath(), gson.toJson(cacheMemory));
+            storage.saveIndex(MEMORY_INDEX, gson.toJson(cacheMemory), true);
         } catch (IOException e) {
             LOG.log(Level.WARNING, "Failed to save memory, all new cache entries and changes will be dropped.", e);
         }
+        try {
+            storage.saveIndex(EVICTED_INDEX, gson.toJson(evictedLocales), false);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to save evicted locales.", e);
+        }
+        saveAccessMemory();
     }
 
     /**
-     * Load the memory DB from memory.json file.
+     * Load the memory DB from storage.
      */
     private void loadMemory() {
         // First, load it as a default
-        this.cacheMemory = new HashMap<>();
-        if (!memoryDBFile.exists()) return; // Give up loading, because it not exists at all.
+        this.cacheMemory = new ConcurrentHashMap<>();
+        if (!storage.isPersistIndexes()) return;
         try {
-            // Load from JSON file.
-            Map<String, CacheRecord> memoryDB = gson.fromJson(Files.readString(new File(rootCacheFolder, "memory.json").toPath()), new TypeToken<Map<String, CacheRecord>>() {
+            String memoryJson = storage.loadIndex(MEMORY_INDEX);
+            if (memoryJson == null) return; // Give up loading, because it not exists at all.
+            // Load from JSON.
+            Map<String, CacheRecord> memoryDB = gson.fromJson(memoryJson, new TypeToken<Map<String, CacheRecord>>() {
             }.getType());
             // Use thread-safe map for memory DB, we need parallel download files.
-            this.cacheMemory = new ConcurrentHashMap<>(memoryDB);
-        } catch (IOException e) {
+            if (memoryDB != null) this.cacheMemory.putAll(memoryDB);
+        } catch (IOException | JsonParseException e) {
             // For any error
-            LOG.log(Level.WARNING, "Failed to load cache memory from file: " + memoryDBFile.getName(), e);
+            LOG.log(Level.WARNING, "Failed to load cache memory from storage: " + storage.getName(), e);
             // Then safely ignore with default empty cache.
         }
     }
 
-    private void initCacheFolder() throws OTAException {
-        if (!this.rootCacheFolder.exists()) {
-            if (!this.rootCacheFolder.getParentFile().exists()) {
-                if (!this.rootCacheFolder.getParentFile().mkdirs()) {
-                    throw new OTAException("Failed to create cache folder: " + this.rootCacheFolder.getParentFile().getAbsolutePath());
-                }
-            }
-            if (!this.rootCacheFolder.mkdir()) {
-                throw new OTAException("Failed to create cache folder: " + this.rootCacheFolder.getAbsolutePath());
-            }
+    /**
+     * Load the access counts from storage.
+     */
+    private void loadAccessMemory() {
+        this.accessMemory = new ConcurrentHashMap<>();
+        if (!storage.isPersistIndexes()) return;
+        try {
+            String accessJson = storage.loadIndex(ACCESS_INDEX);
+            if (accessJson == null) return;
+            Map<String, Long> accessDB = gson.fromJson(accessJson, new TypeToken<Map<String, Long>>() {
+            }.getType());
+            if (accessDB != null) this.accessMemory.putAll(accessDB);
+        } catch (IOException | JsonParseException e) {
+            // Access counts only affects download order, safely ignore.
+            LOG.log(Level.WARNING, "Failed to load access counts from storage: " + storage.getName(), e);
         }
-        if (!this.rootCacheFolder.isDirectory()) {
-            throw new OTAException("Cache folder is not a directory: " + this.rootCacheFolder.getAbsolutePath());
+    }
+
+    /**
+     * Load the evicted locales from storage.
+     */
+    private void loadEvictedLocales() {
+        if (!storage.isPersistIndexes()) return;
+        try {
+            String evictedJson = storage.loadIndex(EVICTED_INDEX);
+            if (evictedJson == null) return;
+            Set<String> evictedDB = gson.fromJson(evictedJson, new TypeToken<Set<String>>() {
+            }.getType());
+            if (evictedDB != null) this.evictedLocales.addAll(evictedDB);
+        } catch (IOException | JsonParseException e) {
+            // Evicted locales will be downloaded again at startup, safely ignore.
+            LOG.log(Level.WARNING, "Failed to load evicted locales from storage: " + storage.getName(), e);
         }
     }
 
@@ -220,9 +616,12 @@ public class OTAFileCache {
         private final long manifestTimestamp;
         // UTF-8 SHA1
         private final String sha1;
+        // Last read or write time in milliseconds, for LRU eviction
+        private volatile long lastAccess;
         public CacheRecord(long manifestTimestamp, String sha1) {
             this.manifestTimestamp = manifestTimestamp;
             this.sha1 = sha1;
+            this.lastAccess = System.currentTimeMillis();
         }
 
         public long getManifestTimestamp() {
@@ -232,5 +631,39 @@ public class OTAFileCache {
         public String getSha1() {
             return sha1;
         }
+
+        public long getLastAccess() {
+            return lastAccess;
+        }
+    }
+
+    /**
+     * The cache status with the content
+     *
+     * @param status  The cache status.
+     * @param content The verified content, null if not cached or invalid. Shared with other readers and must not be modified.
+     */
+    record CacheLookup(@NotNull CacheStatus status, byte @Nullable [] content) {
+    }
+
+    /**
+     * The write waiting to be written into storage
+     */
+    private record PendingWrite(String crowdinSyntaxCode, byte[] content, long timestamp) {
+    }
+
+    /**
+     * Listens the writes into cache
+     */
+    @FunctionalInterface
+    interface CommitListener {
+        /**
+         * Called after the write become readable.
+         *
+         * @param crowdinSyntaxCode The crowdin syntax code.
+         * @param oldContent        The content before write, null if not cached or invalid.
+         * @param newContent        The content after write.
+         */
+        void onCommit(@NotNull String crowdinSyntaxCode, byte @Nullable [] oldContent, byte @NotNull [] newContent);
     }
 }
@@ -1,24 +1,29 @@
 package com.ghostchu.crowdin;
 
+import com.ghostchu.crowdin.event.LocaleChangeEvent;
+import com.ghostchu.crowdin.event.LocaleChangeListener;
 import com.ghostchu.crowdin.exception.OTAException;
-import com.ghostchu.crowdin.util.DigestUtil;
+import com.ghostchu.crowdin.parser.TranslationParser;
 import com.ghostchu.crowdin.util.ForkJoinPoolUtil;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import kong.unirest.HttpResponse;
+import kong.unirest.UnirestException;
 import kong.unirest.UnirestInstance;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class OTAFileInstance {
+    private static final long REFRESH_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(1);
     private final Logger LOG;
     private final String fileName;
     private final CrowdinOTA parent;
@@ -26,12 +31,29 @@ public class OTAFileInstance {
     private final UnirestInstance unirest;
     private final ReentrantLock LOCK = new ReentrantLock();
     private final OTAFileCache fileCache;
+    /**
+     * The locales currently downloading
+     * Key: CrowdinSyntax Language Code
+     * Value: The download task
+     */
+    private final Map<String, CompletableFuture<Void>> downloading = new ConcurrentHashMap<>();
+    /**
+     * The last background refresh attempt of locales, avoid retry storm on failing locales
+     * Key: CrowdinSyntax Language Code
+     * Value: The attempt time in milliseconds
+     */
+    private final Map<String, Long> lastRefreshAttempt = new ConcurrentHashMap<>();
+    private final List<LocaleChangeListener> changeListeners = new CopyOnWriteArrayList<>();
     /**
      * URL Mapping
      * Key: CrowdinSyntax Language Code
      * Value: Host appended URl
      */
     private Map<String, String> urlMapping;
+    /**
+     * The future of the downloads started during construction
+     */
+    private final CompletableFuture<Void> initialDownload;
 
     /**
      * Creates a OTAFileInstance instance.
@@ -47,9 +69,12 @@ public class OTAFileInstance {
         this.fileIndex = fileIndex;
         this.unirest = unirest;
         this.LOG = Logger.getLogger("OTAFileInstance" + "-" + fileIndex);
-        this.fileCache = new OTAFileCache(initCacheFolder());
+        OTAOptions options = parent.getOptions();
+        this.fileCache = new OTAFileCache(parent.storageProvider.open(fileName), options.getContentMemorySize());
         initUrlMapping();
-        downloadFiles(true, 16);
+        OTASnapshot snapshot = parent.getSnapshot();
+        if (snapshot != null) seedFromSnapshot(snapshot);
+        this.initialDownload = downloadFiles(true, options.getDownloadThreads(), options.getHotSetSize());
     }
 
     /**
@@ -65,19 +90,200 @@ public class OTAFileInstance {
     }
 
     /**
-     * Get the translation content
+     * Get the translation content.
+     * Stale content is returned immediately and refreshed in background, the fallback locale will be used if
+     * the locale is not cached or invalid.
      *
      * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
      * @return The translation content.
      */
     @Nullable
     public String getLocaleContentByCrowdinCode(@NotNull String crowdinSyntaxLanguageCode) {
+        byte[] content = getLocaleBytes(crowdinSyntaxLanguageCode);
+        if (content == null) return null;
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the translation content as read-only UTF-8 bytes, without copying the cached content.
+     *
+     * @param customSyntax     The syntax name in language_mapping
+     * @param customLocaleCode The language code in your custom syntax in language_mapping
+     * @return The translation content.
+     */
+    @Nullable
+    public ByteBuffer getLocaleBytesByCustomCode(@NotNull String customSyntax, @NotNull String customLocaleCode) {
+        return getLocaleBytesByCrowdinCode(parent.mapLanguageCustom(customLocaleCode, customSyntax));
+    }
+
+    /**
+     * Get the translation content as read-only UTF-8 bytes, without copying the cached content.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The translation content.
+     */
+    @Nullable
+    public ByteBuffer getLocaleBytesByCrowdinCode(@NotNull String crowdinSyntaxLanguageCode) {
+        byte[] content = getLocaleBytes(crowdinSyntaxLanguageCode);
+        if (content == null) return null;
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    /**
+     * Open a stream of the UTF-8 translation content, reading from the cached content directly.
+     *
+     * @param customSyntax     The syntax name in language_mapping
+     * @param customLocaleCode The language code in your custom syntax in language_mapping
+     * @return The translation content stream.
+     */
+    @Nullable
+    public InputStream openLocaleStreamByCustomCode(@NotNull String customSyntax, @NotNull String customLocaleCode) {
+        return openLocaleStreamByCrowdinCode(parent.mapLanguageCustom(customLocaleCode, customSyntax));
+    }
+
+    /**
+     * Open a stream of the UTF-8 translation content, reading from the cached content directly.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The translation content stream.
+     */
+    @Nullable
+    public InputStream openLocaleStreamByCrowdinCode(@NotNull String crowdinSyntaxLanguageCode) {
+        byte[] content = getLocaleBytes(crowdinSyntaxLanguageCode);
+        if (content == null) return null;
+        return new ByteArrayInputStream(content);
+    }
+
+    /**
+     * Open a reader of the translation content, decoding from the cached content directly.
+     *
+     * @param customSyntax     The syntax name in language_mapping
+     * @param customLocaleCode The language code in your custom syntax in language_mapping
+     * @return The translation content reader.
+     */
+    @Nullable
+    public Reader openLocaleReaderByCustomCode(@NotNull String customSyntax, @NotNull String customLocaleCode) {
+        return openLocaleReaderByCrowdinCode(parent.mapLanguageCustom(customLocaleCode, customSyntax));
+    }
+
+    /**
+     * Open a reader of the translation content, decoding from the cached content directly.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The translation content reader.
+     */
+    @Nullable
+    public Reader openLocaleReaderByCrowdinCode(@NotNull String crowdinSyntaxLanguageCode) {
+        InputStream stream = openLocaleStreamByCrowdinCode(crowdinSyntaxLanguageCode);
+        if (stream == null) return null;
+        return new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the cached translation content, record the access and falls back to the fallback locale.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The UTF-8 translation content, shared with other readers and must not be modified.
+     */
+    private byte @Nullable [] getLocaleBytes(@NotNull String crowdinSyntaxLanguageCode) {
+        // Only count the locales in this distribution
+        if (urlMapping.containsKey(crowdinSyntaxLanguageCode)) this.fileCache.recordAccess(crowdinSyntaxLanguageCode);
+        byte[] content = readLocaleContent(crowdinSyntaxLanguageCode);
+        if (content != null) return content;
+        String fallbackLocale = parent.getOptions().getFallbackLocale();
+        if (fallbackLocale == null || fallbackLocale.equals(crowdinSyntaxLanguageCode)) return null;
+        return readLocaleContent(fallbackLocale);
+    }
+
+    /**
+     * Read the translation content with stale-while-revalidate policy.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The translation content, null if not cached, invalid or exceeded the max staleness and failed to refresh.
+     */
+    private byte @Nullable [] readLocaleContent(@NotNull String crowdinSyntaxLanguageCode) {
+        OTAFileCache.CacheLookup lookup;
         LOCK.lock();
         try {
-            return this.fileCache.readCache(crowdinSyntaxLanguageCode, parent.getTimestamp(), true);
+            lookup = this.fileCache.lookup(crowdinSyntaxLanguageCode, parent.getTimestamp());
         } finally {
             LOCK.unlock();
         }
+        OTAFileCache.CacheStatus status = lookup.status();
+        if (status == OTAFileCache.CacheStatus.WORKING) return lookup.content();
+        // Unknown locale, nothing can be refreshed
+        if (!urlMapping.containsKey(crowdinSyntaxLanguageCode)) return null;
+        CompletableFuture<Void> refresh = refreshInBackground(crowdinSyntaxLanguageCode);
+        // Evicted to fit the cache quota, fetch on demand
+        if (status == OTAFileCache.CacheStatus.NOT_CACHED && refresh != null && this.fileCache.isEvicted(crowdinSyntaxLanguageCode)) {
+            awaitRefresh(crowdinSyntaxLanguageCode, refresh);
+            return this.fileCache.readCacheBytes(crowdinSyntaxLanguageCode, parent.getTimestamp(), false);
+        }
+        if (status != OTAFileCache.CacheStatus.CACHE_EXPIRED) return null;
+        if (!isMaxStalenessExceeded()) return lookup.content();
+        // Too stale to serve, wait for the refresh
+        if (refresh == null) return null;
+        if (!awaitRefresh(crowdinSyntaxLanguageCode, refresh)) {
+            // Don't block the reader on a stalled download, the refresh keeps running
+            return lookup.content();
+        }
+        return this.fileCache.readCacheBytes(crowdinSyntaxLanguageCode, parent.getTimestamp(), false);
+    }
+
+    /**
+     * Wait for the refresh up to {@link OTAOptions#getRefreshWaitTimeout()}.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @param refresh                   The future of the refresh task.
+     * @return false if timed out or interrupted, the refresh is still running.
+     */
+    private boolean awaitRefresh(@NotNull String crowdinSyntaxLanguageCode, @NotNull CompletableFuture<Void> refresh) {
+        Duration timeout = parent.getOptions().getRefreshWaitTimeout();
+        try {
+            refresh.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warning("Refresh of " + crowdinSyntaxLanguageCode + " not completed in " + timeout.toMillis() + "ms, serving without waiting.");
+            return false;
+        } catch (ExecutionException e) {
+            // Failures already logged by downloadFile
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Schedule a background refresh for the specific locale, deduplicated with running downloads.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return The future of the refresh task, null if the locale failed to refresh recently.
+     */
+    @Nullable
+    private CompletableFuture<Void> refreshInBackground(@NotNull String crowdinSyntaxLanguageCode) {
+        CompletableFuture<Void> running = downloading.get(crowdinSyntaxLanguageCode);
+        if (running != null) return running;
+        long now = System.currentTimeMillis();
+        Long lastAttempt = lastRefreshAttempt.get(crowdinSyntaxLanguageCode);
+        if (lastAttempt != null && now - lastAttempt < REFRESH_RETRY_INTERVAL) return null;
+        lastRefreshAttempt.put(crowdinSyntaxLanguageCode, now);
+        LOG.fine("Refreshing stale translation for " + crowdinSyntaxLanguageCode + " in background...");
+        CompletableFuture<Void> refresh = downloadFileAsync(crowdinSyntaxLanguageCode, parent.refreshExecutor);
+        refresh.whenComplete((ignored, throwable) -> parent.requestQuotaEnforcement());
+        return refresh;
+    }
+
+    /**
+     * Check if the expired content is too stale to serve.
+     * The staleness is the time since the manifest which replaced the content was published.
+     *
+     * @return true if the max staleness configured and exceeded
+     */
+    private boolean isMaxStalenessExceeded() {
+        Duration maxStaleness = parent.getOptions().getMaxStaleness();
+        if (maxStaleness == null) return false;
+        long staleness = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(parent.getTimestamp());
+        return staleness > maxStaleness.toMillis();
     }
 
     /**
@@ -96,27 +302,201 @@ public class OTAFileInstance {
      * @param includeExpired Whether to include files which expired, False will only download invalid/not cached files
      * @param threads        The maximum threads for fork-join-pool.
      */
-    public synchronized void downloadFiles(boolean includeExpired, int threads) {
+    public void downloadFiles(boolean includeExpired, int threads) {
+        downloadFiles(includeExpired, threads, -1).join();
+    }
+
+    /**
+     * Download translation files from Crowdin with Multi-Threaded, ordered by priority.
+     * Blocking until the hot locales and the {@code hotSetSize} most accessed locales are downloaded,
+     * the remaining locales keep downloading in background.
+     *
+     * @param includeExpired Whether to include files which expired, False will only download invalid/not cached files
+     * @param threads        The maximum threads for fork-join-pool.
+     * @param hotSetSize     The amount of most accessed locales to wait for, negative to wait for all.
+     * @return The future that completes once all locales are downloaded.
+     */
+    @NotNull
+    public synchronized CompletableFuture<Void> downloadFiles(boolean includeExpired, int threads, int hotSetSize) {
+        List<String> localesNeedDownload;
+        LOCK.lock();
+        try {
+            localesNeedDownload = sortByPriority(checkLocalesNeedDownload(includeExpired));
+        } finally {
+            LOCK.unlock();
+        }
+        this.fileCache.saveAccessMemory();
+        LOG.info("Downloading translations for " + localesNeedDownload.size() + " locales...");
+        List<CompletableFuture<Void>> hotFutures = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Downloaded files are readable immediately, flush them into storage in groups
+        this.fileCache.beginBatch();
+        // Create thread pool, tasks are executed in submit order.
+        ExecutorService service = ForkJoinPoolUtil.createExecutorService(threads);
+        Set<String> hotLocales = this.parent.getOptions().getHotLocales();
+        int remainingHotSlots = hotSetSize;
+        for (String locale : localesNeedDownload) {
+            // Failures already logged by downloadFile, don't break the whole batch.
+            CompletableFuture<Void> future = downloadFileAsync(locale, service).exceptionally(e -> null);
+            futures.add(future);
+            if (hotSetSize < 0 || hotLocales.contains(locale)) {
+                hotFutures.add(future);
+            } else if (remainingHotSlots > 0) {
+                hotFutures.add(future);
+                remainingHotSlots--;
+            }
+        }
+        // Queued tasks still run, the threads will exit after all tasks completed.
+        service.shutdown();
+        // Wait for hot set to complete
+        CompletableFuture.allOf(hotFutures.toArray(new CompletableFuture[0])).join();
+        if (hotFutures.size() < futures.size()) {
+            this.fileCache.commit();
+            LOG.info("Hot locales are ready, downloading " + (futures.size() - hotFutures.size()) + " locales in background...");
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, throwable) -> {
+            this.fileCache.endBatch();
+            parent.requestQuotaEnforcement();
+        });
+    }
+
+    /**
+     * Seed the cache with the snapshot contents which newer than the cached ones,
+     * so they can be served before downloaded, and skipped by download if the manifest unchanged since the snapshot.
+     *
+     * @param snapshot The build-time snapshot.
+     */
+    private void seedFromSnapshot(@NotNull OTASnapshot snapshot) {
+        long snapshotTimestamp = snapshot.getManifest().getTimestamp();
+        int seeded = 0;
+        this.fileCache.beginBatch();
+        try {
+            for (Map.Entry<String, byte[]> entry : snapshot.getLocaleContents(fileName).entrySet()) {
+                String locale = entry.getKey();
+                if (!urlMapping.containsKey(locale)) continue;
+                // Cache is valid and not older than the snapshot
+                if (this.fileCache.getCacheStatus(locale, snapshotTimestamp) == OTAFileCache.CacheStatus.WORKING)
+                    continue;
+                this.fileCache.writeCache(locale, entry.getValue(), snapshotTimestamp);
+                seeded++;
+            }
+        } finally {
+            this.fileCache.endBatch();
+        }
+        if (seeded > 0) LOG.info("Seeded " + seeded + " locales from snapshot.");
+    }
+
+    /**
+     * Gets the future of the downloads started during construction.
+     *
+     * @return The future that completes once all locales are downloaded.
+     */
+    @NotNull
+    CompletableFuture<Void> getInitialDownload() {
+        return this.initialDownload;
+    }
+
+    /**
+     * Remove the cached locales which no longer in this file.
+     *
+     * @return The amount of removed locales.
+     */
+    int removeUnreferencedLocales() {
+        LOCK.lock();
+        try {
+            return this.fileCache.retainLocales(urlMapping.keySet());
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Evict the specific locale to fit the cache quota, it is downloaded again on demand only.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @return false if the locale is downloading and not evicted.
+     */
+    boolean evictLocale(@NotNull String crowdinSyntaxLanguageCode) {
         LOCK.lock();
         try {
-            Set<String> localesNeedDownload = new HashSet<>(checkLocalesUnavailable());
-            if (includeExpired) localesNeedDownload.addAll(checkLocalesExpired());
-            LOG.info("Downloading translations for " + localesNeedDownload.size() + " locales...");
-            List<Future<?>> futures = new ArrayList<>();
-            // Create thread pool
-            ExecutorService service = ForkJoinPoolUtil.createExecutorService(threads);
-            // Parallel download files
-            localesNeedDownload.forEach(locale -> futures.add(service.submit(() -> downloadFile(locale))));
-            // Wait for all tasks to complete
-            futures.forEach(future -> {
+            if (downloading.containsKey(crowdinSyntaxLanguageCode)) return false;
+            this.fileCache.evict(crowdinSyntaxLanguageCode);
+            return true;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Gets the cache of this file.
+     *
+     * @return The file cache.
+     */
+    @NotNull
+    OTAFileCache getFileCache() {
+        return this.fileCache;
+    }
+
+    /**
+     * Persist the locale access counts which used to prioritize downloads.
+     * The counts are also saved periodically, see {@link OTAOptions#setAccessStatsFlushInterval(Duration)}.
+     */
+    public void saveAccessStats() {
+        this.fileCache.saveAccessMemory();
+    }
+
+    /**
+     * Persist the locale access counts if changed since saved.
+     */
+    void flushAccessStats() {
+        if (this.fileCache.isAccessDirty()) this.fileCache.saveAccessMemory();
+    }
+
+    /**
+     * Sort the locales by download priority.
+     * Configured hot locales come first, then the most accessed locales.
+     *
+     * @param locales The crowdin syntax locale codes.
+     * @return The sorted locale codes.
+     */
+    @NotNull
+    List<String> sortByPriority(@NotNull Collection<String> locales) {
+        Set<String> hotLocales = this.parent.getOptions().getHotLocales();
+        List<String> sorted = new ArrayList<>(locales);
+        sorted.sort(Comparator.<String, Boolean>comparing(locale -> !hotLocales.contains(locale))
+                .thenComparing(locale -> -this.fileCache.getAccessCount(locale))
+                .thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
+
+    /**
+     * Download the translation file in specific executor, the download will be skipped if it already downloading.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @param executor                  The executor to run download task.
+     * @return The future of the download task.
+     */
+    @NotNull
+    private CompletableFuture<Void> downloadFileAsync(@NotNull String crowdinSyntaxLanguageCode, @NotNull Executor executor) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = downloading.putIfAbsent(crowdinSyntaxLanguageCode, future);
+        if (existing != null) return existing;
+        try {
+            executor.execute(() -> {
                 try {
-                    future.get();
-                } catch (Exception ignored) {
+                    downloadFile(crowdinSyntaxLanguageCode);
+                    downloading.remove(crowdinSyntaxLanguageCode, future);
+                    future.complete(null);
+                } catch (Throwable e) {
+                    downloading.remove(crowdinSyntaxLanguageCode, future);
+                    future.completeExceptionally(e);
                 }
             });
-        } finally {
-            LOCK.unlock();
+        } catch (RejectedExecutionException e) {
+            downloading.remove(crowdinSyntaxLanguageCode, future);
+            future.completeExceptionally(e);
         }
+        return future;
     }
 
     private void downloadFile(@NotNull String crowdinSyntaxLanguageCode) {
@@ -124,7 +504,13 @@ public class OTAFileInstance {
         String url = urlMapping.get(crowdinSyntaxLanguageCode);
         if (url == null)
             throw new IllegalArgumentException("Invalid crowdinSyntaxLanguageCode: " + crowdinSyntaxLanguageCode);
-        HttpResponse<String> response = unirest.get(url).asString();
+        HttpResponse<byte[]> response;
+        try {
+            response = fetch(url);
+        } catch (CompletionException | UnirestException e) {
+            LOG.warning("Failed to download translation for " + crowdinSyntaxLanguageCode + ": " + e.getMessage());
+            return;
+        }
         if (response.isSuccess()) {
             // write into cache
             this.fileCache.writeCache(crowdinSyntaxLanguageCode, response.getBody(), this.parent.getTimestamp());
@@ -135,86 +521,214 @@ public class OTAFileInstance {
     }
 
     /**
-     * Check all locales that need to update.
+     * Register a listener to receive the key-level changes when translations are refreshed.
+     * Listeners are called in order on a single background thread, not on the download threads.
      *
-     * @return Lists of locales that cache expired.
+     * @param listener The listener.
      */
-    @NotNull
-    private Set<String> checkLocalesExpired() {
-        Set<String> expired = new HashSet<>();
-        Set<String> locales = urlMapping.keySet();
-        for (String locale : locales) {
-            OTAFileCache.CacheStatus status = this.fileCache.getCacheStatus(locale, this.parent.getTimestamp());
-            if (status == OTAFileCache.CacheStatus.CACHE_EXPIRED) {
-                expired.add(locale);
-            }
+    public void addChangeListener(@NotNull LocaleChangeListener listener) {
+        synchronized (changeListeners) {
+            changeListeners.add(listener);
+            this.fileCache.setCommitListener(this::dispatchChanges);
         }
-        return expired;
     }
 
     /**
-     * Check all locales translation availability.
+     * Unregister a change listener.
      *
-     * @return Lists of locales that cache invalid or not cached.
+     * @param listener The listener.
      */
-    @NotNull
-    private Set<String> checkLocalesUnavailable() {
-        Set<String> unavailable = new HashSet<>();
-        Set<String> locales = urlMapping.keySet();
-        for (String locale : locales) {
-            OTAFileCache.CacheStatus status = this.fileCache.getCacheStatus(locale, this.parent.getTimestamp());
-            if (status == OTAFileCache.CacheStatus.NOT_CACHED || status == OTAFileCache.CacheStatus.CACHE_INVALID) {
-                unavailable.add(locale);
-            }
+    public void removeChangeListener(@NotNull LocaleChangeListener listener) {
+        synchronized (changeListeners) {
+            changeListeners.remove(listener);
+            // Stop reading the replaced content on every write
+            if (changeListeners.isEmpty()) this.fileCache.setCommitListener(null);
         }
-        return unavailable;
     }
 
     /**
-     * Creates the url for every locale and put into urlMapping
+     * Notify the change listeners on the event executor, so parsing and slow listeners don't delay the downloads.
+     * Called after the new content published into cache.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @param oldContent                The content before refresh, null if not cached.
+     * @param newContent                The content after refresh.
      */
-    private void initUrlMapping() throws OTAException {
-        JsonElement contentElement = this.parent.manifest.get("content");
-        if (contentElement == null || !contentElement.isJsonObject()) {
-            throw new OTAException("Either content field not found or not a object.");
+    private void dispatchChanges(@NotNull String crowdinSyntaxLanguageCode, byte @Nullable [] oldContent, byte @NotNull [] newContent) {
+        if (changeListeners.isEmpty() || Arrays.equals(oldContent, newContent)) return;
+        try {
+            parent.eventExecutor.execute(() -> publishChanges(crowdinSyntaxLanguageCode, oldContent, newContent));
+        } catch (RejectedExecutionException e) {
+            LOG.fine("Dropped the changes of " + crowdinSyntaxLanguageCode + ", the CrowdinOTA instance is closed.");
         }
-        Map<String, String> stageMapping = new LinkedHashMap<>();
-        JsonObject content = contentElement.getAsJsonObject();
-        for (Map.Entry<String, JsonElement> urlEntry : content.entrySet()) {
-            String crowdinSyntaxCode = urlEntry.getKey();
-            JsonElement pathElement = urlEntry.getValue();
-            if (!pathElement.isJsonArray()) {
-                throw new OTAException("The `content.<locale>` object not a array.");
+    }
+
+    /**
+     * Compare the old and new content of the locale and notify the change listeners.
+     *
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @param oldContent                The content before refresh, null if not cached.
+     * @param newContent                The content after refresh.
+     */
+    private void publishChanges(@NotNull String crowdinSyntaxLanguageCode, byte @Nullable [] oldContent, byte @NotNull [] newContent) {
+        TranslationParser parser = parent.getOptions().getTranslationParser(this.fileName);
+        LocaleChangeEvent event = computeChanges(this.fileName, crowdinSyntaxLanguageCode, parser, oldContent, newContent);
+        if (event == null) return;
+        for (LocaleChangeListener listener : changeListeners) {
+            try {
+                listener.onLocaleChange(event);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "Change listener failed to process " + event, e);
             }
-            JsonArray fileArray = pathElement.getAsJsonArray();
-            if (fileArray.size() <= this.fileIndex) {
-                LOG.warning("The `content.<locale>` array size is less than the file index, skipping...");
-                continue;
+        }
+    }
+
+    /**
+     * Compute the changes between the old and new content of the locale.
+     * Falls back to a non key-level event if no parser available or the content can't be parsed.
+     *
+     * @param fileName                  The file name.
+     * @param crowdinSyntaxLanguageCode The crowdin syntax language code.
+     * @param parser                    The translation parser of the file, null if not registered.
+     * @param oldContent                The content before refresh, null if not cached.
+     * @param newContent                The content after refresh.
+     * @return The event, null if nothing changed.
+     */
+    @Nullable
+    static LocaleChangeEvent computeChanges(@NotNull String fileName, @NotNull String crowdinSyntaxLanguageCode, @Nullable TranslationParser parser,
+                                            byte @Nullable [] oldContent, byte @NotNull [] newContent) {
+        if (Arrays.equals(oldContent, newContent)) return null;
+        LocaleChangeEvent event;
+        try {
+            if (parser == null) throw new IOException("No translation parser registered for " + fileName);
+            Map<String, String> oldKeys = oldContent == null ? Map.of() : parser.parse(new InputStreamReader(new ByteArrayInputStream(oldContent), StandardCharsets.UTF_8));
+            Map<String, String> newKeys = parser.parse(new InputStreamReader(new ByteArrayInputStream(newContent), StandardCharsets.UTF_8));
+            event = LocaleChangeEvent.diff(fileName, crowdinSyntaxLanguageCode, oldKeys, newKeys);
+        } catch (IOException e) {
+            Logger.getLogger("OTAFileInstance").log(Level.FINE, "Cannot compute key-level changes for " + crowdinSyntaxLanguageCode, e);
+            event = new LocaleChangeEvent(fileName, crowdinSyntaxLanguageCode, false, Map.of(), Map.of(), Map.of());
+        }
+        return event.isEmpty() ? null : event;
+    }
+
+    /**
+     * Request the url, issue a hedged request if the response slower than the configured latency percentile.
+     *
+     * @param url The request url.
+     * @return The first successful response, or the last failed response if all requests failed.
+     */
+    @NotNull
+    private HttpResponse<byte[]> fetch(@NotNull String url) {
+        OTAOptions options = parent.getOptions();
+        double hedgePercentile = options.getHedgePercentile();
+        long hedgeDelay = hedgePercentile > 0 ? parent.latencyTracker.percentile(hedgePercentile) : -1;
+        // Not enough latencies observed yet
+        if (hedgePercentile > 0 && hedgeDelay < 0 && options.getInitialHedgeDelay() != null) {
+            hedgeDelay = options.getInitialHedgeDelay().toMillis();
+        }
+        CompletableFuture<HttpResponse<byte[]>> primary = requestAsync(url);
+        if (hedgeDelay < 0) return primary.join();
+        try {
+            return primary.get(hedgeDelay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.fine("Request slower than " + hedgeDelay + "ms, issuing hedged request for " + url);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        if (!parent.hedgePermits.tryAcquire()) {
+            LOG.fine("Hedge budget exhausted, waiting for the request of " + url);
+            return primary.join();
+        }
+        CompletableFuture<HttpResponse<byte[]>> hedged = requestAsync(url);
+        // The losing request is not aborted, it holds the permit until completed
+        CompletableFuture.allOf(primary, hedged).whenComplete((ignored, throwable) -> parent.hedgePermits.release());
+        return firstSuccessful(primary, hedged).join();
+    }
+
+    /**
+     * Request the url asynchronously and record the latency of successful response.
+     *
+     * @param url The request url.
+     * @return The future of the response.
+     */
+    @NotNull
+    private CompletableFuture<HttpResponse<byte[]>> requestAsync(@NotNull String url) {
+        long startTime = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> request = parent.request(url).asBytesAsync();
+        request.whenComplete((response, throwable) -> {
+            if (response != null && response.isSuccess()) {
+                parent.latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
             }
-            String path = fileArray.get(this.fileIndex).getAsString();
-            String url = this.parent.distributionUrl + path + "?timestamp=" + parent.getTimestamp();
-            stageMapping.put(crowdinSyntaxCode, url);
+        });
+        return request;
+    }
+
+    /**
+     * Gets the first successful response from the requests, the other requests keep running until completed.
+     *
+     * @param requests The requests.
+     * @return The future completes with first successful response, or the last result if all requests failed.
+     */
+    @SafeVarargs
+    @NotNull
+    private static CompletableFuture<HttpResponse<byte[]>> firstSuccessful(@NotNull CompletableFuture<HttpResponse<byte[]>>... requests) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(requests.length);
+        for (CompletableFuture<HttpResponse<byte[]>> request : requests) {
+            request.whenComplete((response, throwable) -> {
+                if (throwable == null && response.isSuccess()) {
+                    result.complete(response);
+                } else if (remaining.decrementAndGet() == 0) {
+                    if (throwable == null) {
+                        result.complete(response);
+                    } else {
+                        result.completeExceptionally(throwable);
+                    }
+                }
+            });
         }
-        this.urlMapping = stageMapping;
+        return result;
     }
 
     /**
-     * Creates the cache folder if it doesn't exist.
-     * Folder inside the parent cache folder, name is sha1(fileName)
+     * Check all locales translation availability, every cached locale is read and verified once.
      *
-     * @return The cache folder.
-     * @throws OTAException Throws a OTAException while failed to create the cache folder.
+     * @param includeExpired Whether to include the locales which cache expired.
+     * @return Lists of locales that cache invalid, not cached, or expired if included.
      */
     @NotNull
-    private File initCacheFolder() throws OTAException {
-        File parentFolder = parent.cacheFolder;
-        File newFolder = new File(parentFolder, DigestUtil.sha1(this.fileName));
-        if (!newFolder.exists()) {
-            if (!newFolder.mkdirs()) {
-                throw new OTAException("Failed to create cache folder for " + this.fileName);
+    private Set<String> checkLocalesNeedDownload(boolean includeExpired) {
+        Set<String> needDownload = new HashSet<>();
+        for (String locale : urlMapping.keySet()) {
+            OTAFileCache.CacheStatus status = this.fileCache.getCacheStatus(locale, this.parent.getTimestamp());
+            // Evicted locales are downloaded on demand only
+            if (status == OTAFileCache.CacheStatus.NOT_CACHED && this.fileCache.isEvicted(locale)) continue;
+            if (status == OTAFileCache.CacheStatus.NOT_CACHED || status == OTAFileCache.CacheStatus.CACHE_INVALID
+                    || (includeExpired && status == OTAFileCache.CacheStatus.CACHE_EXPIRED)) {
+                needDownload.add(locale);
             }
         }
-        return newFolder;
+        return needDownload;
+    }
+
+    /**
+     * Creates the url for every locale and put into urlMapping
+     */
+    private void initUrlMapping() {
+        OTAManifest manifest = this.parent.getManifest();
+        Map<String, String> filePaths = manifest.getFilePaths(this.fileIndex);
+        if (filePaths.size() < manifest.getLocales().size()) {
+            LOG.warning("The `content.<locale>` array size is less than the file index for some locales, skipping...");
+        }
+        String urlSuffix = "?timestamp=" + manifest.getTimestamp();
+        Map<String, String> stageMapping = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : filePaths.entrySet()) {
+            stageMapping.put(entry.getKey(), this.parent.distributionUrl + entry.getValue() + urlSuffix);
+        }
+        this.urlMapping = stageMapping;
     }
 
     @Override
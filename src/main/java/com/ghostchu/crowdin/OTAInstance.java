@@ -1,8 +1,6 @@
 package com.ghostchu.crowdin;
 
 import com.ghostchu.crowdin.exception.OTAException;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import kong.unirest.UnirestInstance;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -10,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class OTAInstance {
@@ -57,18 +56,12 @@ public class OTAInstance {
      * @throws OTAException Throws a OTAException while failed during requesting or processing manifest.
      */
     private void initFileInstances() throws OTAException {
-        JsonElement filesElement = parent.manifest.get("files");
-        if (!filesElement.isJsonArray()) {
-            throw new OTAException("The manifest field `files` not a array.");
-        }
-        JsonArray files = filesElement.getAsJsonArray();
+        List<String> files = parent.getManifest().getFiles();
         Map<String, OTAFileInstance> stageMap = new LinkedHashMap<>();
-        int index = 0;
-        for (JsonElement file : files) {
-            String fileName = file.getAsString();
+        for (int index = 0; index < files.size(); index++) {
+            String fileName = files.get(index);
             OTAFileInstance fileInstance = new OTAFileInstance(parent, fileName, index, this.unirest);
             stageMap.put(fileName, fileInstance);
-            index++;
         }
         this.fileMapping = stageMap;
     }
@@ -0,0 +1,248 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * The immutable Crowdin distribution manifest, parsed once from the manifest.json.
+ */
+public final class OTAManifest {
+    private final List<String> files;
+    private final String[] locales;
+    /**
+     * The locale x file path table
+     * paths[localeIndex][fileIndex], null if the file not available for the locale
+     */
+    private final String[][] paths;
+    /**
+     * The language mapping
+     * CrowdinSyntaxName, Map(Syntax, CustomName)
+     */
+    private final Map<String, Map<String, String>> languageMapping;
+    private final long timestamp;
+
+    private OTAManifest(@NotNull List<String> files, @NotNull String[] locales, @NotNull String[][] paths,
+                        @NotNull Map<String, Map<String, String>> languageMapping, long timestamp) {
+        this.files = files;
+        this.locales = locales;
+        this.paths = paths;
+        this.languageMapping = languageMapping;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Parse the manifest from a reader with streaming parser.
+     *
+     * @param reader The reader of manifest.json content.
+     * @return The parsed manifest.
+     * @throws OTAException Throws a OTAException while the manifest invalid.
+     */
+    @NotNull
+    public static OTAManifest parse(@NotNull Reader reader) throws OTAException {
+        try {
+            JsonReader json = new JsonReader(reader);
+            if (json.peek() != JsonToken.BEGIN_OBJECT)
+                throw new OTAException("Failed to parse Crowdin distribution manifest: root path must is a json object.");
+            List<String> files = null;
+            Map<String, List<String>> content = null;
+            Map<String, Map<String, String>> languageMapping = new LinkedHashMap<>();
+            long timestamp = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "files" -> files = readFiles(json);
+                    case "content" -> content = readContent(json);
+                    case "language_mapping" -> readLanguageMapping(json, languageMapping);
+                    case "timestamp" -> timestamp = json.nextLong();
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+            if (files == null) throw new OTAException("The manifest field `files` not a array.");
+            if (content == null) throw new OTAException("Either content field not found or not a object.");
+            String[] locales = content.keySet().toArray(new String[0]);
+            String[][] paths = new String[locales.length][];
+            for (int i = 0; i < locales.length; i++) {
+                paths[i] = content.get(locales[i]).toArray(new String[0]);
+            }
+            return new OTAManifest(List.copyOf(files), locales, paths, Collections.unmodifiableMap(languageMapping), timestamp);
+        } catch (IOException | IllegalStateException | NumberFormatException | JsonParseException e) {
+            throw new OTAException("Failed to parse Crowdin distribution manifest: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the manifest as manifest.json content, which can be parsed again by {@link #parse(Reader)}.
+     *
+     * @param writer The writer, not closed by this method.
+     * @throws IOException Throws a IOException while failed to write.
+     */
+    public void write(@NotNull Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("files").beginArray();
+        for (String file : files) {
+            json.value(file);
+        }
+        json.endArray();
+        json.name("language_mapping").beginObject();
+        for (Map.Entry<String, Map<String, String>> entry : languageMapping.entrySet()) {
+            json.name(entry.getKey()).beginObject();
+            for (Map.Entry<String, String> mapping : entry.getValue().entrySet()) {
+                json.name(mapping.getKey()).value(mapping.getValue());
+            }
+            json.endObject();
+        }
+        json.endObject();
+        json.name("timestamp").value(timestamp);
+        json.name("content").beginObject();
+        for (int i = 0; i < locales.length; i++) {
+            json.name(locales[i]).beginArray();
+            for (String path : paths[i]) {
+                json.value(path);
+            }
+            json.endArray();
+        }
+        json.endObject();
+        json.endObject();
+        json.flush();
+    }
+
+    @NotNull
+    private static List<String> readFiles(@NotNull JsonReader json) throws IOException, OTAException {
+        if (json.peek() != JsonToken.BEGIN_ARRAY) throw new OTAException("The manifest field `files` not a array.");
+        List<String> files = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            files.add(json.nextString());
+        }
+        json.endArray();
+        return files;
+    }
+
+    @NotNull
+    private static Map<String, List<String>> readContent(@NotNull JsonReader json) throws IOException, OTAException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT)
+            throw new OTAException("Either content field not found or not a object.");
+        Map<String, List<String>> content = new LinkedHashMap<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            String crowdinSyntaxCode = json.nextName();
+            if (json.peek() != JsonToken.BEGIN_ARRAY)
+                throw new OTAException("The `content.<locale>` object not a array.");
+            List<String> filePaths = new ArrayList<>();
+            json.beginArray();
+            while (json.hasNext()) {
+                filePaths.add(json.nextString());
+            }
+            json.endArray();
+            content.put(crowdinSyntaxCode, filePaths);
+        }
+        json.endObject();
+        return content;
+    }
+
+    private static void readLanguageMapping(@NotNull JsonReader json, @NotNull Map<String, Map<String, String>> languageMapping) throws IOException, OTAException {
+        if (json.peek() != JsonToken.BEGIN_OBJECT) {
+            json.skipValue();
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            String crowdinSyntaxCode = json.nextName();
+            if (json.peek() != JsonToken.BEGIN_OBJECT)
+                throw new OTAException("One of element in language_mapping's value not a json object.");
+            Map<String, String> mappingSet = new LinkedHashMap<>();
+            json.beginObject();
+            while (json.hasNext()) {
+                mappingSet.put(json.nextName(), json.nextString());
+            }
+            json.endObject();
+            languageMapping.put(crowdinSyntaxCode, Collections.unmodifiableMap(mappingSet));
+        }
+        json.endObject();
+    }
+
+    /**
+     * Gets the files in this distribution.
+     *
+     * @return The file names, index is the file position in `files` array.
+     */
+    @NotNull
+    public List<String> getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets the locales in this distribution.
+     *
+     * @return The crowdin syntax locale codes.
+     */
+    @NotNull
+    public List<String> getLocales() {
+        return List.of(locales);
+    }
+
+    /**
+     * Gets the file path of the specific locale and file.
+     *
+     * @param crowdinSyntaxCode The crowdin syntax locale code.
+     * @param fileIndex         The file position in `files` array.
+     * @return The file path, null if not available.
+     */
+    @Nullable
+    public String getPath(@NotNull String crowdinSyntaxCode, int fileIndex) {
+        for (int i = 0; i < locales.length; i++) {
+            if (locales[i].equals(crowdinSyntaxCode)) {
+                return fileIndex < paths[i].length ? paths[i][fileIndex] : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the file paths of all locales for the specific file.
+     *
+     * @param fileIndex The file position in `files` array.
+     * @return The file paths, key is crowdin syntax locale code, locales without the file are absent.
+     */
+    @NotNull
+    public Map<String, String> getFilePaths(int fileIndex) {
+        Map<String, String> filePaths = new LinkedHashMap<>();
+        for (int i = 0; i < locales.length; i++) {
+            if (fileIndex < paths[i].length) {
+                filePaths.put(locales[i], paths[i][fileIndex]);
+            }
+        }
+        return filePaths;
+    }
+
+    /**
+     * Gets the language mapping.
+     *
+     * @return The language mapping, CrowdinSyntaxName, Map(Syntax, CustomName)
+     */
+    @NotNull
+    public Map<String, Map<String, String>> getLanguageMapping() {
+        return languageMapping;
+    }
+
+    /**
+     * Gets the timestamp of this manifest
+     *
+     * @return The timestamp of this manifest.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,491 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.parser.JsonTranslationParser;
+import com.ghostchu.crowdin.parser.PropertiesTranslationParser;
+import com.ghostchu.crowdin.parser.TranslationParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+
+public class OTAOptions {
+    private int downloadThreads = 16;
+    private int hotSetSize = -1;
+    private Set<String> hotLocales = new LinkedHashSet<>();
+    private int refreshThreads = 2;
+    private String fallbackLocale;
+    private Duration maxStaleness;
+    private Duration refreshWaitTimeout = Duration.ofSeconds(10);
+    private Duration connectTimeout;
+    private Duration readTimeout;
+    private double hedgePercentile = 0;
+    private Duration initialHedgeDelay;
+    private int hedgeBudget = 4;
+    private boolean cacheMaintenance = true;
+    private long cacheQuota = 0;
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.BATCH;
+    private int contentMemorySize = OTAFileCache.DEFAULT_CONTENT_MEMORY_SIZE;
+    private String snapshotResource = OTASnapshot.DEFAULT_RESOURCE;
+    private Duration accessStatsFlushInterval = Duration.ofMinutes(5);
+    private final Map<String, TranslationParser> translationParsers = new HashMap<>(Map.of(
+            "json", new JsonTranslationParser(),
+            "properties", new PropertiesTranslationParser()));
+
+    /**
+     * Gets the maximum threads used to download translation files.
+     *
+     * @return The maximum threads.
+     */
+    public int getDownloadThreads() {
+        return downloadThreads;
+    }
+
+    /**
+     * Sets the maximum threads used to download translation files.
+     *
+     * @param downloadThreads The maximum threads, must be greater than 0.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setDownloadThreads(int downloadThreads) {
+        if (downloadThreads < 1)
+            throw new IllegalArgumentException("The thread count must be greater than 0");
+        this.downloadThreads = downloadThreads;
+        return this;
+    }
+
+    /**
+     * Gets the hot set size.
+     *
+     * @return The amount of most accessed locales to wait for during startup, negative to wait for all.
+     */
+    public int getHotSetSize() {
+        return hotSetSize;
+    }
+
+    /**
+     * Sets the hot set size.
+     * Startup returns as soon as the hot locales and the given amount of most accessed locales are downloaded,
+     * the remaining locales keep downloading in background.
+     *
+     * @param hotSetSize The amount of most accessed locales to wait for, negative to wait for all (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setHotSetSize(int hotSetSize) {
+        this.hotSetSize = hotSetSize;
+        return this;
+    }
+
+    /**
+     * Gets the locales that always downloaded first and waited during startup.
+     *
+     * @return The crowdin syntax locale codes.
+     */
+    @NotNull
+    public Set<String> getHotLocales() {
+        return hotLocales;
+    }
+
+    /**
+     * Sets the locales that always downloaded first and waited during startup.
+     *
+     * @param hotLocales The crowdin syntax locale codes.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setHotLocales(@NotNull Collection<String> hotLocales) {
+        this.hotLocales = new LinkedHashSet<>(hotLocales);
+        return this;
+    }
+
+    /**
+     * Gets the interval to save the changed locale access counts.
+     *
+     * @return The interval, null for disabled.
+     */
+    @Nullable
+    public Duration getAccessStatsFlushInterval() {
+        return accessStatsFlushInterval;
+    }
+
+    /**
+     * Sets the interval to save the changed locale access counts, which used to prioritize downloads on next start.
+     * Accesses recorded after the last save are saved by {@link CrowdinOTA#close()}, or call
+     * {@link OTAFileInstance#saveAccessStats()} to save them explicitly.
+     *
+     * @param accessStatsFlushInterval The interval, 5 minutes by default, null to disable.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setAccessStatsFlushInterval(@Nullable Duration accessStatsFlushInterval) {
+        if (accessStatsFlushInterval != null && (accessStatsFlushInterval.isNegative() || accessStatsFlushInterval.isZero()))
+            throw new IllegalArgumentException("The interval must be positive");
+        this.accessStatsFlushInterval = accessStatsFlushInterval;
+        return this;
+    }
+
+    /**
+     * Gets the maximum threads used to refresh stale locales in background.
+     *
+     * @return The maximum threads.
+     */
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    /**
+     * Sets the maximum threads used to refresh stale locales in background.
+     *
+     * @param refreshThreads The maximum threads, must be greater than 0.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setRefreshThreads(int refreshThreads) {
+        if (refreshThreads < 1)
+            throw new IllegalArgumentException("The thread count must be greater than 0");
+        this.refreshThreads = refreshThreads;
+        return this;
+    }
+
+    /**
+     * Gets the locale to serve when the requested locale is not cached or invalid.
+     *
+     * @return The crowdin syntax locale code, null for no fallback.
+     */
+    @Nullable
+    public String getFallbackLocale() {
+        return fallbackLocale;
+    }
+
+    /**
+     * Sets the locale to serve when the requested locale is not cached or invalid.
+     *
+     * @param fallbackLocale The crowdin syntax locale code, null for no fallback (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setFallbackLocale(@Nullable String fallbackLocale) {
+        this.fallbackLocale = fallbackLocale;
+        return this;
+    }
+
+    /**
+     * Gets the maximum staleness of the served content.
+     *
+     * @return The maximum staleness, null for unbounded.
+     */
+    @Nullable
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    /**
+     * Sets the maximum staleness of the served content.
+     * Expired content is served while refreshing in background, until the manifest which replaced it
+     * is older than this duration. After that the read waits for the refresh instead, up to
+     * {@link #setRefreshWaitTimeout(Duration)}.
+     *
+     * @param maxStaleness The maximum staleness, null for unbounded (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setMaxStaleness(@Nullable Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+        return this;
+    }
+
+    /**
+     * Gets how long a read waits for the refresh of a locale which can't be served from cache.
+     *
+     * @return The timeout.
+     */
+    @NotNull
+    public Duration getRefreshWaitTimeout() {
+        return refreshWaitTimeout;
+    }
+
+    /**
+     * Sets how long a read waits for the refresh of a locale which exceeded the max staleness or was evicted.
+     * Once timed out, the stale content or the fallback locale is served and the refresh keeps running in background.
+     *
+     * @param refreshWaitTimeout The timeout, 10 seconds by default.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setRefreshWaitTimeout(@NotNull Duration refreshWaitTimeout) {
+        if (refreshWaitTimeout.isNegative() || refreshWaitTimeout.isZero())
+            throw new IllegalArgumentException("The timeout must be positive");
+        this.refreshWaitTimeout = refreshWaitTimeout;
+        return this;
+    }
+
+    /**
+     * Gets the connect timeout for every request.
+     *
+     * @return The connect timeout, null to use the unirest instance config.
+     */
+    @Nullable
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the connect timeout for every request.
+     *
+     * @param connectTimeout The connect timeout, null to use the unirest instance config (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setConnectTimeout(@Nullable Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Gets the read (socket) timeout for every request.
+     *
+     * @return The read timeout, null to use the unirest instance config.
+     */
+    @Nullable
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the read (socket) timeout for every request.
+     *
+     * @param readTimeout The read timeout, null to use the unirest instance config (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setReadTimeout(@Nullable Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Gets the latency percentile to issue a hedged request.
+     *
+     * @return The percentile between 0 and 1, 0 for hedging disabled.
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * Sets the latency percentile to issue a hedged request.
+     * Once a download takes longer than this percentile of observed download latencies, a duplicate request
+     * will be issued and whichever response arrives first is used.
+     *
+     * @param hedgePercentile The percentile between 0 and 1 (e.g. 0.95), 0 to disable hedging (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setHedgePercentile(double hedgePercentile) {
+        if (hedgePercentile < 0 || hedgePercentile > 1)
+            throw new IllegalArgumentException("The percentile must be between 0 and 1");
+        this.hedgePercentile = hedgePercentile;
+        return this;
+    }
+
+    /**
+     * Gets the delay to issue a hedged request before enough download latencies observed.
+     *
+     * @return The delay, null to not hedge until enough latencies observed.
+     */
+    @Nullable
+    public Duration getInitialHedgeDelay() {
+        return initialHedgeDelay;
+    }
+
+    /**
+     * Sets the delay to issue a hedged request before enough download latencies observed,
+     * so the downloads during startup can be hedged too. Only takes effect if hedging enabled by
+     * {@link #setHedgePercentile(double)}.
+     *
+     * @param initialHedgeDelay The delay, null to not hedge until enough latencies observed (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setInitialHedgeDelay(@Nullable Duration initialHedgeDelay) {
+        this.initialHedgeDelay = initialHedgeDelay;
+        return this;
+    }
+
+    /**
+     * Gets the maximum hedged requests in flight.
+     *
+     * @return The maximum hedged requests.
+     */
+    public int getHedgeBudget() {
+        return hedgeBudget;
+    }
+
+    /**
+     * Sets the maximum hedged requests in flight.
+     * The losing request of a hedge is not aborted and keeps its connection until it completes,
+     * so a hedge counts against the budget until both requests completed. Once exhausted, slow downloads
+     * wait for their own request instead of hedging.
+     *
+     * @param hedgeBudget The maximum hedged requests, 4 by default, 0 to disable hedging.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setHedgeBudget(int hedgeBudget) {
+        if (hedgeBudget < 0)
+            throw new IllegalArgumentException("The hedge budget must not be negative");
+        this.hedgeBudget = hedgeBudget;
+        return this;
+    }
+
+    /**
+     * Gets whether to run the cache maintenance in background after startup.
+     *
+     * @return true if enabled.
+     */
+    public boolean isCacheMaintenance() {
+        return cacheMaintenance;
+    }
+
+    /**
+     * Sets whether to run the cache maintenance in background after startup.
+     * The maintenance removes the caches unreferenced by the manifest and enforces the cache quota.
+     *
+     * @param cacheMaintenance true to enable (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setCacheMaintenance(boolean cacheMaintenance) {
+        this.cacheMaintenance = cacheMaintenance;
+        return this;
+    }
+
+    /**
+     * Gets the disk quota of the cached translations.
+     *
+     * @return The quota in bytes, 0 for unlimited.
+     */
+    public long getCacheQuota() {
+        return cacheQuota;
+    }
+
+    /**
+     * Sets the disk quota of the cached translations, the least recently used locales will be evicted when exceeded.
+     *
+     * @param cacheQuota The quota in bytes, 0 for unlimited (default).
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setCacheQuota(long cacheQuota) {
+        if (cacheQuota < 0)
+            throw new IllegalArgumentException("The cache quota must not be negative");
+        this.cacheQuota = cacheQuota;
+        return this;
+    }
+
+    /**
+     * Gets when the cache files should be flushed to the storage device.
+     *
+     * @return The fsync policy.
+     */
+    @NotNull
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Sets when the cache files should be flushed to the storage device.
+     * Cache files are always published atomically, the policy only decides the durability on power failure.
+     *
+     * @param fsyncPolicy The fsync policy, {@link FsyncPolicy#BATCH} by default.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setFsyncPolicy(@NotNull FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+        return this;
+    }
+
+    /**
+     * Gets the maximum locales of each file to keep the content in memory.
+     *
+     * @return The maximum locales.
+     */
+    public int getContentMemorySize() {
+        return contentMemorySize;
+    }
+
+    /**
+     * Sets the maximum locales of each file to keep the content in memory.
+     * The most recently read locales are served from memory, the others are read from storage and verified
+     * on each read. Set it to at least the amount of locales actively served.
+     *
+     * @param contentMemorySize The maximum locales, 8 by default, 0 to always read from storage.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setContentMemorySize(int contentMemorySize) {
+        if (contentMemorySize < 0)
+            throw new IllegalArgumentException("The content memory size must not be negative");
+        this.contentMemorySize = contentMemorySize;
+        return this;
+    }
+
+    /**
+     * Gets the classpath resource of the build-time snapshot.
+     *
+     * @return The resource name, null for disabled.
+     */
+    @Nullable
+    public String getSnapshotResource() {
+        return snapshotResource;
+    }
+
+    /**
+     * Sets the classpath resource of the build-time snapshot.
+     * If the resource exists and was captured from the same distribution, its contents seed the cache at startup,
+     * and its manifest is used when the manifest failed to download.
+     *
+     * @param snapshotResource The resource name, {@link OTASnapshot#DEFAULT_RESOURCE} by default, null to disable.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setSnapshotResource(@Nullable String snapshotResource) {
+        this.snapshotResource = snapshotResource;
+        return this;
+    }
+
+    /**
+     * Gets the translation parser for the specific file, used to compute key-level changes.
+     *
+     * @param fileName The file name.
+     * @return The translation parser, null if no parser registered for the file extension.
+     */
+    @Nullable
+    public TranslationParser getTranslationParser(@NotNull String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) return null;
+        return translationParsers.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Sets the translation parser for the specific file extension, used to compute key-level changes.
+     * JSON and properties files are supported by default, register a parser for other formats such as YAML.
+     *
+     * @param extension The file extension without dot, e.g. "yml".
+     * @param parser    The translation parser, null to unregister.
+     * @return This options instance.
+     */
+    @NotNull
+    public OTAOptions setTranslationParser(@NotNull String extension, @Nullable TranslationParser parser) {
+        String key = extension.toLowerCase(Locale.ROOT);
+        if (parser == null) {
+            translationParsers.remove(key);
+        } else {
+            translationParsers.put(key, parser);
+        }
+        return this;
+    }
+}
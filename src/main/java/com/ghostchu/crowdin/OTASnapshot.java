@@ -0,0 +1,194 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The snapshot of a distribution captured at build time, includes the manifest and all locale contents.
+ * Bundled on the classpath, it seeds the cache at startup so translations can be served before anything downloaded.
+ */
+public final class OTASnapshot {
+    /**
+     * The default classpath resource of the snapshot
+     */
+    public static final String DEFAULT_RESOURCE = "crowdinota-snapshot.bin";
+    private static final int MAGIC = 0x4F544153; // OTAS
+    private static final int VERSION = 1;
+    private final String distributionUrl;
+    private final OTAManifest manifest;
+    /**
+     * The locale contents
+     * FileName, Map(CrowdinSyntaxCode, UTF-8 content)
+     */
+    private final Map<String, Map<String, byte[]>> contents;
+
+    /**
+     * Create a OTASnapshot instance.
+     *
+     * @param distributionUrl The distribution URL.
+     * @param manifest        The manifest of the distribution.
+     * @param contents        The locale contents, FileName, Map(CrowdinSyntaxCode, UTF-8 content)
+     */
+    public OTASnapshot(@NotNull String distributionUrl, @NotNull OTAManifest manifest, @NotNull Map<String, Map<String, byte[]>> contents) {
+        this.distributionUrl = distributionUrl;
+        this.manifest = manifest;
+        Map<String, Map<String, byte[]>> copy = new LinkedHashMap<>();
+        contents.forEach((fileName, locales) -> copy.put(fileName, Collections.unmodifiableMap(new LinkedHashMap<>(locales))));
+        this.contents = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Capture the snapshot from the cached translations of a CrowdinOTA instance.
+     * Locales failed to download or expired are skipped, the fallback locale never takes their place.
+     *
+     * @param crowdinOTA The CrowdinOTA instance.
+     * @return The snapshot.
+     */
+    @NotNull
+    public static OTASnapshot capture(@NotNull CrowdinOTA crowdinOTA) {
+        Map<String, Map<String, byte[]>> contents = new LinkedHashMap<>();
+        OTAInstance otaInstance = crowdinOTA.getOtaInstance();
+        for (String fileName : otaInstance.listFiles()) {
+            OTAFileInstance fileInstance = otaInstance.getFileInstance(fileName);
+            if (fileInstance == null) continue;
+            Map<String, byte[]> locales = new LinkedHashMap<>();
+            for (String locale : fileInstance.getAvailableLocales()) {
+                // Read the cache directly, without recording access or refreshing
+                byte[] content = fileInstance.getFileCache().readCacheBytes(locale, crowdinOTA.getTimestamp(), false);
+                if (content != null) locales.put(locale, content);
+            }
+            contents.put(fileName, locales);
+        }
+        return new OTASnapshot(crowdinOTA.distributionUrl, crowdinOTA.getManifest(), contents);
+    }
+
+    /**
+     * Load the snapshot from classpath.
+     *
+     * @param classLoader The class loader to find the resource.
+     * @param resource    The resource name.
+     * @return The snapshot, null if the resource not found.
+     * @throws OTAException Throws a OTAException while the snapshot invalid.
+     */
+    @Nullable
+    public static OTASnapshot load(@NotNull ClassLoader classLoader, @NotNull String resource) throws OTAException {
+        InputStream stream = classLoader.getResourceAsStream(resource);
+        if (stream == null) return null;
+        try (stream) {
+            return read(stream);
+        } catch (IOException e) {
+            throw new OTAException("Failed to read snapshot " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read the snapshot from a stream.
+     *
+     * @param stream The stream, not closed by this method.
+     * @return The snapshot.
+     * @throws OTAException Throws a OTAException while the snapshot invalid.
+     * @throws IOException  Throws a IOException while failed to read.
+     */
+    @NotNull
+    public static OTASnapshot read(@NotNull InputStream stream) throws OTAException, IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+        if (in.readInt() != MAGIC) throw new OTAException("Not a CrowdinOTA snapshot.");
+        int version = in.readInt();
+        if (version != VERSION) throw new OTAException("Unsupported snapshot version: " + version);
+        String distributionUrl = in.readUTF();
+        OTAManifest manifest = OTAManifest.parse(new StringReader(new String(readBytes(in), StandardCharsets.UTF_8)));
+        Map<String, Map<String, byte[]>> contents = new LinkedHashMap<>();
+        int fileCount = in.readInt();
+        for (int i = 0; i < fileCount; i++) {
+            String fileName = in.readUTF();
+            Map<String, byte[]> locales = new LinkedHashMap<>();
+            int localeCount = in.readInt();
+            for (int j = 0; j < localeCount; j++) {
+                locales.put(in.readUTF(), readBytes(in));
+            }
+            contents.put(fileName, locales);
+        }
+        return new OTASnapshot(distributionUrl, manifest, contents);
+    }
+
+    /**
+     * Write the snapshot into a stream.
+     *
+     * @param stream The stream, not closed by this method.
+     * @throws IOException Throws a IOException while failed to write.
+     */
+    public void write(@NotNull OutputStream stream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(stream);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(distributionUrl);
+        StringWriter manifestWriter = new StringWriter();
+        manifest.write(manifestWriter);
+        writeBytes(out, manifestWriter.toString().getBytes(StandardCharsets.UTF_8));
+        out.writeInt(contents.size());
+        for (Map.Entry<String, Map<String, byte[]>> file : contents.entrySet()) {
+            out.writeUTF(file.getKey());
+            out.writeInt(file.getValue().size());
+            for (Map.Entry<String, byte[]> locale : file.getValue().entrySet()) {
+                out.writeUTF(locale.getKey());
+                writeBytes(out, locale.getValue());
+            }
+        }
+        out.flush();
+        gzip.finish();
+    }
+
+    private static byte @NotNull [] readBytes(@NotNull DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Negative length: " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream out, byte @NotNull [] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Gets the distribution URL this snapshot captured from.
+     *
+     * @return The distribution URL.
+     */
+    @NotNull
+    public String getDistributionUrl() {
+        return distributionUrl;
+    }
+
+    /**
+     * Gets the manifest at capture time.
+     *
+     * @return The manifest.
+     */
+    @NotNull
+    public OTAManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Gets the locale contents of the specific file.
+     *
+     * @param fileName The file name.
+     * @return The UTF-8 contents, key is crowdin syntax locale code, must not be modified. Empty if file not captured.
+     */
+    @NotNull
+    public Map<String, byte[]> getLocaleContents(@NotNull String fileName) {
+        return contents.getOrDefault(fileName, Collections.emptyMap());
+    }
+}
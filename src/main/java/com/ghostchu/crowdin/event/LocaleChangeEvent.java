@@ -0,0 +1,150 @@
+package com.ghostchu.crowdin.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The translation changes of a locale in a file.
+ */
+public class LocaleChangeEvent {
+    private final String fileName;
+    private final String crowdinSyntaxCode;
+    private final boolean keyLevel;
+    private final Map<String, String> added;
+    private final Map<String, String> removed;
+    private final Map<String, String> changed;
+
+    /**
+     * Create a LocaleChangeEvent instance.
+     *
+     * @param fileName          The file name.
+     * @param crowdinSyntaxCode The crowdin syntax locale code.
+     * @param keyLevel          Whether the key changes available.
+     * @param added             The added keys and their values.
+     * @param removed           The removed keys and their old values.
+     * @param changed           The changed keys and their new values.
+     */
+    public LocaleChangeEvent(@NotNull String fileName, @NotNull String crowdinSyntaxCode, boolean keyLevel,
+                             @NotNull Map<String, String> added, @NotNull Map<String, String> removed, @NotNull Map<String, String> changed) {
+        this.fileName = fileName;
+        this.crowdinSyntaxCode = crowdinSyntaxCode;
+        this.keyLevel = keyLevel;
+        this.added = Collections.unmodifiableMap(added);
+        this.removed = Collections.unmodifiableMap(removed);
+        this.changed = Collections.unmodifiableMap(changed);
+    }
+
+    /**
+     * Compute the key changes between the old and new translation keys.
+     *
+     * @param fileName          The file name.
+     * @param crowdinSyntaxCode The crowdin syntax locale code.
+     * @param oldKeys           The translation keys before refresh.
+     * @param newKeys           The translation keys after refresh.
+     * @return The change event.
+     */
+    @NotNull
+    public static LocaleChangeEvent diff(@NotNull String fileName, @NotNull String crowdinSyntaxCode,
+                                         @NotNull Map<String, String> oldKeys, @NotNull Map<String, String> newKeys) {
+        Map<String, String> added = new LinkedHashMap<>();
+        Map<String, String> removed = new LinkedHashMap<>();
+        Map<String, String> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : newKeys.entrySet()) {
+            if (!oldKeys.containsKey(entry.getKey())) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!entry.getValue().equals(oldKeys.get(entry.getKey()))) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, String> entry : oldKeys.entrySet()) {
+            if (!newKeys.containsKey(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new LocaleChangeEvent(fileName, crowdinSyntaxCode, true, added, removed, changed);
+    }
+
+    /**
+     * Gets the file name.
+     *
+     * @return The file name.
+     */
+    @NotNull
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the locale of the changes.
+     *
+     * @return The crowdin syntax locale code.
+     */
+    @NotNull
+    public String getCrowdinSyntaxCode() {
+        return crowdinSyntaxCode;
+    }
+
+    /**
+     * Gets whether the key changes available.
+     * False if the file format has no parser registered, the whole locale should be reloaded.
+     *
+     * @return true if the key changes available.
+     */
+    public boolean isKeyLevel() {
+        return keyLevel;
+    }
+
+    /**
+     * Gets the added keys.
+     *
+     * @return The added keys and their values.
+     */
+    @NotNull
+    public Map<String, String> getAdded() {
+        return added;
+    }
+
+    /**
+     * Gets the removed keys.
+     *
+     * @return The removed keys and their old values.
+     */
+    @NotNull
+    public Map<String, String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Gets the changed keys.
+     *
+     * @return The changed keys and their new values.
+     */
+    @NotNull
+    public Map<String, String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Gets whether nothing changed at key level.
+     *
+     * @return true if no key added, removed or changed.
+     */
+    public boolean isEmpty() {
+        return keyLevel && added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "LocaleChangeEvent{" +
+                "fileName='" + fileName + '\'' +
+                ", crowdinSyntaxCode='" + crowdinSyntaxCode + '\'' +
+                ", keyLevel=" + keyLevel +
+                ", added=" + added.keySet() +
+                ", removed=" + removed.keySet() +
+                ", changed=" + changed.keySet() +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.ghostchu.crowdin.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listens the translation changes of locales when they're refreshed.
+ */
+@FunctionalInterface
+public interface LocaleChangeListener {
+    /**
+     * Called after the changed translation written into cache.
+     * Invoked on the download thread, implementations should be quick and thread-safe.
+     *
+     * @param event The change event.
+     */
+    void onLocaleChange(@NotNull LocaleChangeEvent event);
+}
@@ -0,0 +1,53 @@
+package com.ghostchu.crowdin.parser;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses JSON translation files, nested objects and arrays are flattened into dot separated keys.
+ */
+public class JsonTranslationParser implements TranslationParser {
+    @Override
+    @NotNull
+    public Map<String, String> parse(@NotNull Reader reader) throws IOException {
+        Map<String, String> keys = new LinkedHashMap<>();
+        try {
+            JsonReader json = new JsonReader(reader);
+            readValue(json, "", keys);
+        } catch (IllegalStateException | NumberFormatException | JsonParseException e) {
+            throw new IOException("Invalid JSON translation: " + e.getMessage(), e);
+        }
+        return keys;
+    }
+
+    private void readValue(@NotNull JsonReader json, @NotNull String path, @NotNull Map<String, String> keys) throws IOException {
+        switch (json.peek()) {
+            case BEGIN_OBJECT -> {
+                json.beginObject();
+                while (json.hasNext()) {
+                    String name = json.nextName();
+                    readValue(json, path.isEmpty() ? name : path + "." + name, keys);
+                }
+                json.endObject();
+            }
+            case BEGIN_ARRAY -> {
+                json.beginArray();
+                int index = 0;
+                while (json.hasNext()) {
+                    readValue(json, path.isEmpty() ? String.valueOf(index) : path + "." + index, keys);
+                    index++;
+                }
+                json.endArray();
+            }
+            case NULL -> json.nextNull();
+            case BOOLEAN -> keys.put(path, String.valueOf(json.nextBoolean()));
+            default -> keys.put(path, json.nextString());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ghostchu.crowdin.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parses Java properties translation files.
+ */
+public class PropertiesTranslationParser implements TranslationParser {
+    @Override
+    @NotNull
+    public Map<String, String> parse(@NotNull Reader reader) throws IOException {
+        Properties properties = new Properties();
+        try {
+            properties.load(reader);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid properties translation: " + e.getMessage(), e);
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            keys.put(name, properties.getProperty(name));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ghostchu.crowdin.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Parses a translation file into flat translation keys, used to compute key-level changes.
+ */
+@FunctionalInterface
+public interface TranslationParser {
+    /**
+     * Parse the translation content.
+     *
+     * @param reader The reader of translation content.
+     * @return The flat translation keys and values.
+     * @throws IOException Throws a IOException while the content not readable or invalid.
+     */
+    @NotNull
+    Map<String, String> parse(@NotNull Reader reader) throws IOException;
+}
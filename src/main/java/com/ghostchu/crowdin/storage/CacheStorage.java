@@ -0,0 +1,95 @@
+package com.ghostchu.crowdin.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The storage backend of a single file's translation cache.
+ * Entries are keyed by crowdin syntax locale code, indexes are small named documents such as the cache records.
+ */
+public interface CacheStorage {
+    /**
+     * Gets the name of this storage, for logging.
+     *
+     * @return The name.
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * Read the content of the entry.
+     *
+     * @param key The entry key.
+     * @return The content, null if not exists. The array must not be modified by the caller.
+     * @throws IOException Throws a IOException while failed to read.
+     */
+    byte @Nullable [] read(@NotNull String key) throws IOException;
+
+    /**
+     * Write the entries, every entry must be published atomically, a reader never sees a partial content.
+     * The arrays are owned by the storage after written and never modified.
+     *
+     * @param entries The entry keys and their contents.
+     * @throws IOException Throws a IOException while failed to write, the entries may be partially written.
+     */
+    void write(@NotNull Map<String, byte[]> entries) throws IOException;
+
+    /**
+     * Delete the entry.
+     *
+     * @param key The entry key.
+     * @throws IOException Throws a IOException while failed to delete.
+     */
+    void delete(@NotNull String key) throws IOException;
+
+    /**
+     * List the entries in this storage, indexes are not included.
+     *
+     * @return The entry keys and their size in bytes.
+     * @throws IOException Throws a IOException while failed to list.
+     */
+    @NotNull
+    Map<String, Long> list() throws IOException;
+
+    /**
+     * Load the index.
+     *
+     * @param name The index name.
+     * @return The index content, null if not exists.
+     * @throws IOException Throws a IOException while failed to read.
+     */
+    @Nullable
+    String loadIndex(@NotNull String name) throws IOException;
+
+    /**
+     * Save the index atomically.
+     *
+     * @param name    The index name.
+     * @param content The index content.
+     * @param durable Whether the index must be durable after saved.
+     * @throws IOException Throws a IOException while failed to write.
+     */
+    void saveIndex(@NotNull String name, @NotNull String content, boolean durable) throws IOException;
+
+    /**
+     * Gets whether the indexes should be saved and loaded.
+     * Storages which never outlive the cache can skip them, the cache keeps the indexes in memory anyway.
+     *
+     * @return true if the indexes should be persisted.
+     */
+    default boolean isPersistIndexes() {
+        return true;
+    }
+
+    /**
+     * Gets whether the writes should be collected and written together during a refresh.
+     *
+     * @return true if batching writes is cheaper for this storage.
+     */
+    default boolean isBatchWrites() {
+        return false;
+    }
+}
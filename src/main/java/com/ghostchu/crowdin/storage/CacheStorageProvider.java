@@ -0,0 +1,29 @@
+package com.ghostchu.crowdin.storage;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * Provides the cache storages of files in a distribution.
+ */
+public interface CacheStorageProvider {
+    /**
+     * Open the storage of the specific file.
+     *
+     * @param fileName The file name in manifest `files`.
+     * @return The storage.
+     * @throws OTAException Throws a OTAException while failed to create the storage.
+     */
+    @NotNull
+    CacheStorage open(@NotNull String fileName) throws OTAException;
+
+    /**
+     * Delete the storages of files which not in the given files.
+     *
+     * @param fileNames The file names to retain.
+     * @return The amount of deleted storages.
+     */
+    int retainFiles(@NotNull Collection<String> fileNames);
+}
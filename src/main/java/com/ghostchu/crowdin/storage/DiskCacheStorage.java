@@ -0,0 +1,196 @@
+package com.ghostchu.crowdin.storage;
+
+import com.ghostchu.crowdin.FsyncPolicy;
+import com.ghostchu.crowdin.exception.OTAException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The cache storage on the filesystem, every entry is a file in the folder and every index is a JSON file.
+ * Files are written into a temp file and atomically moved into place.
+ */
+public class DiskCacheStorage implements CacheStorage {
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String INDEX_FILE_SUFFIX = ".json";
+    private final Logger LOG;
+    private final File rootCacheFolder;
+    private final FsyncPolicy fsyncPolicy;
+
+    /**
+     * Create a DiskCacheStorage instance.
+     *
+     * @param rootCacheFolder The folder to store the cache files.
+     * @param fsyncPolicy     When the cache files should be flushed to the storage device.
+     * @throws OTAException Throws a OTAException while failed to create the cache folder.
+     */
+    public DiskCacheStorage(@NotNull File rootCacheFolder, @NotNull FsyncPolicy fsyncPolicy) throws OTAException {
+        this.LOG = Logger.getLogger("DiskCacheStorage - " + rootCacheFolder.getName());
+        this.rootCacheFolder = rootCacheFolder;
+        this.fsyncPolicy = fsyncPolicy;
+        initCacheFolder();
+        deleteTempFiles();
+    }
+
+    @Override
+    @NotNull
+    public String getName() {
+        return rootCacheFolder.getName();
+    }
+
+    @Override
+    public byte @Nullable [] read(@NotNull String key) throws IOException {
+        File file = new File(this.rootCacheFolder, key);
+        if (!file.exists()) return null;
+        return Files.readAllBytes(file.toPath());
+    }
+
+    @Override
+    public void write(@NotNull Map<String, byte[]> entries) throws IOException {
+        List<Path> tempFiles = new ArrayList<>();
+        try {
+            Map<Path, Path> moves = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                Path tempFile = writeTempFile(entry.getKey(), entry.getValue());
+                tempFiles.add(tempFile);
+                moves.put(tempFile, new File(this.rootCacheFolder, entry.getKey()).toPath());
+            }
+            // Flush all contents before any of them published
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                for (Path tempFile : tempFiles) fsync(tempFile);
+            }
+            for (Map.Entry<Path, Path> move : moves.entrySet()) {
+                moveAtomically(move.getKey(), move.getValue());
+            }
+            if (fsyncPolicy != FsyncPolicy.NONE) fsyncDirectory();
+        } finally {
+            for (Path tempFile : tempFiles) deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public void delete(@NotNull String key) throws IOException {
+        Files.deleteIfExists(new File(this.rootCacheFolder, key).toPath());
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> list() throws IOException {
+        Map<String, Long> sizes = new HashMap<>();
+        File[] files = this.rootCacheFolder.listFiles(File::isFile);
+        if (files == null) throw new IOException("Cannot list cache folder: " + this.rootCacheFolder.getAbsolutePath());
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(INDEX_FILE_SUFFIX) || name.endsWith(TEMP_FILE_SUFFIX)) continue;
+            sizes.put(name, file.length());
+        }
+        return sizes;
+    }
+
+    @Override
+    @Nullable
+    public String loadIndex(@NotNull String name) throws IOException {
+        File file = new File(this.rootCacheFolder, name + INDEX_FILE_SUFFIX);
+        if (!file.exists()) return null;
+        return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void saveIndex(@NotNull String name, @NotNull String content, boolean durable) throws IOException {
+        Path tempFile = writeTempFile(name, content.getBytes(StandardCharsets.UTF_8));
+        try {
+            if (durable && fsyncPolicy != FsyncPolicy.NONE) fsync(tempFile);
+            moveAtomically(tempFile, new File(this.rootCacheFolder, name + INDEX_FILE_SUFFIX).toPath());
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public boolean isBatchWrites() {
+        return fsyncPolicy == FsyncPolicy.BATCH;
+    }
+
+    @NotNull
+    private Path writeTempFile(@NotNull String key, byte @NotNull [] content) throws IOException {
+        Path tempFile = Files.createTempFile(this.rootCacheFolder.toPath(), key + "-", TEMP_FILE_SUFFIX);
+        try {
+            Files.write(tempFile, content);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+
+    private void moveAtomically(@NotNull Path source, @NotNull Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void fsync(@NotNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Fsync the cache folder to persist the renames, not supported on some platforms.
+     */
+    private void fsyncDirectory() {
+        try (FileChannel channel = FileChannel.open(this.rootCacheFolder.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.log(Level.FINEST, "Directory fsync not supported", e);
+        }
+    }
+
+    private void deleteQuietly(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Failed to delete " + file, e);
+        }
+    }
+
+    /**
+     * Delete the temp files left by crashed writes.
+     */
+    private void deleteTempFiles() {
+        File[] tempFiles = this.rootCacheFolder.listFiles((dir, name) -> name.endsWith(TEMP_FILE_SUFFIX));
+        if (tempFiles == null) return;
+        for (File tempFile : tempFiles) {
+            deleteQuietly(tempFile.toPath());
+        }
+    }
+
+    private void initCacheFolder() throws OTAException {
+        if (!this.rootCacheFolder.exists()) {
+            if (!this.rootCacheFolder.getParentFile().exists()) {
+                if (!this.rootCacheFolder.getParentFile().mkdirs()) {
+                    throw new OTAException("Failed to create cache folder: " + this.rootCacheFolder.getParentFile().getAbsolutePath());
+                }
+            }
+            if (!this.rootCacheFolder.mkdir()) {
+                throw new OTAException("Failed to create cache folder: " + this.rootCacheFolder.getAbsolutePath());
+            }
+        }
+        if (!this.rootCacheFolder.isDirectory()) {
+            throw new OTAException("Cache folder is not a directory: " + this.rootCacheFolder.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ghostchu.crowdin.storage;
+
+import com.ghostchu.crowdin.FsyncPolicy;
+import com.ghostchu.crowdin.exception.OTAException;
+import com.ghostchu.crowdin.util.DigestUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Provides {@link DiskCacheStorage}, every file is stored in the folder named sha1(fileName) inside the cache folder.
+ */
+public class DiskCacheStorageProvider implements CacheStorageProvider {
+    private static final Logger LOG = Logger.getLogger("DiskCacheStorageProvider");
+    private static final Pattern SHA1_FOLDER_PATTERN = Pattern.compile("[0-9a-f]{40}");
+    private final File cacheFolder;
+    private final FsyncPolicy fsyncPolicy;
+
+    /**
+     * Create a DiskCacheStorageProvider instance.
+     *
+     * @param cacheFolder The folder to put cache files
+     * @param fsyncPolicy When the cache files should be flushed to the storage device.
+     */
+    public DiskCacheStorageProvider(@NotNull File cacheFolder, @NotNull FsyncPolicy fsyncPolicy) {
+        this.cacheFolder = cacheFolder;
+        this.fsyncPolicy = fsyncPolicy;
+        initCacheFolder();
+    }
+
+    @Override
+    @NotNull
+    public CacheStorage open(@NotNull String fileName) throws OTAException {
+        return new DiskCacheStorage(new File(cacheFolder, DigestUtil.sha1(fileName)), fsyncPolicy);
+    }
+
+    @Override
+    public int retainFiles(@NotNull Collection<String> fileNames) {
+        Set<String> referencedFolders = fileNames.stream().map(DigestUtil::sha1).collect(Collectors.toSet());
+        File[] folders = cacheFolder.listFiles(File::isDirectory);
+        if (folders == null) return 0;
+        int removed = 0;
+        for (File folder : folders) {
+            // Only touch the folders created by us, sha1(fileName)
+            if (referencedFolders.contains(folder.getName()) || !SHA1_FOLDER_PATTERN.matcher(folder.getName()).matches())
+                continue;
+            try (Stream<Path> paths = Files.walk(folder.toPath())) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+                removed++;
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Failed to remove unreferenced cache folder " + folder.getName(), e);
+            }
+        }
+        return removed;
+    }
+
+    private void initCacheFolder() {
+        // check parent folder if exists
+        if (!cacheFolder.exists()) {
+            if (!cacheFolder.mkdirs())
+                throw new IllegalStateException(new IOException("Cannot create cache folder."));
+        } else {
+            if (!cacheFolder.isDirectory())
+                throw new IllegalStateException(new IOException("Cannot create cache folder, file exists but not a directory."));
+        }
+    }
+}
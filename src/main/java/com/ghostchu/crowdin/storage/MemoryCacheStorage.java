@@ -0,0 +1,72 @@
+package com.ghostchu.crowdin.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cache storage which keeps everything on heap and never touches the filesystem.
+ */
+public class MemoryCacheStorage implements CacheStorage {
+    private final String name;
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Create a MemoryCacheStorage instance.
+     *
+     * @param name The name of this storage, for logging.
+     */
+    public MemoryCacheStorage(@NotNull String name) {
+        this.name = name;
+    }
+
+    @Override
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte @Nullable [] read(@NotNull String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void write(@NotNull Map<String, byte[]> entries) {
+        this.entries.putAll(entries);
+    }
+
+    @Override
+    public void delete(@NotNull String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> list() {
+        Map<String, Long> sizes = new HashMap<>();
+        entries.forEach((key, content) -> sizes.put(key, (long) content.length));
+        return sizes;
+    }
+
+    @Override
+    public boolean isPersistIndexes() {
+        // Nothing outlives the cache instance, skip serializing the indexes
+        return false;
+    }
+
+    @Override
+    @Nullable
+    public String loadIndex(@NotNull String name) {
+        return indexes.get(name);
+    }
+
+    @Override
+    public void saveIndex(@NotNull String name, @NotNull String content, boolean durable) {
+        indexes.put(name, content);
+    }
+}
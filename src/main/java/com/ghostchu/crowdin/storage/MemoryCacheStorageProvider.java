@@ -0,0 +1,27 @@
+package com.ghostchu.crowdin.storage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides {@link MemoryCacheStorage}, for ephemeral or read-only deployments which the disk cache is pure overhead.
+ */
+public class MemoryCacheStorageProvider implements CacheStorageProvider {
+    private final Map<String, MemoryCacheStorage> storages = new ConcurrentHashMap<>();
+
+    @Override
+    @NotNull
+    public CacheStorage open(@NotNull String fileName) {
+        return storages.computeIfAbsent(fileName, MemoryCacheStorage::new);
+    }
+
+    @Override
+    public int retainFiles(@NotNull Collection<String> fileNames) {
+        int before = storages.size();
+        storages.keySet().retainAll(fileNames);
+        return before - storages.size();
+    }
+}
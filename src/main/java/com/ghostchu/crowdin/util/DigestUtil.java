@@ -10,9 +10,15 @@ public class DigestUtil {
     // calc SHA-1 hash string from a string
     @NotNull
     public static String sha1(@NotNull String input) {
+        return sha1(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // calc SHA-1 hash string from bytes
+    @NotNull
+    public static String sha1(byte @NotNull [] input) {
         try {
             MessageDigest mDigest = MessageDigest.getInstance("SHA1");
-            byte[] result = mDigest.digest(input.getBytes(StandardCharsets.UTF_8));
+            byte[] result = mDigest.digest(input);
             StringBuilder sb = new StringBuilder();
             for (byte b : result) {
                 sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
@@ -2,8 +2,7 @@ package com.ghostchu.crowdin.util;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
 
 public class ForkJoinPoolUtil {
     @NotNull
@@ -13,4 +12,40 @@ public class ForkJoinPoolUtil {
         }
         return Executors.newFixedThreadPool(threadCount);
     }
+
+    /**
+     * Creates a executor service with daemon threads, idle threads will exit after 60 seconds.
+     *
+     * @param threadCount The maximum threads.
+     * @param name        The thread name.
+     * @return The executor service.
+     */
+    @NotNull
+    public static ExecutorService createDaemonExecutorService(int threadCount, @NotNull String name) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The thread count must be greater than 0");
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates a single threaded scheduled executor service with daemon thread.
+     *
+     * @param name The thread name.
+     * @return The scheduled executor service.
+     */
+    @NotNull
+    public static ScheduledExecutorService createDaemonScheduledExecutorService(@NotNull String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
@@ -0,0 +1,55 @@
+package com.ghostchu.crowdin.util;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent request latencies and computes percentiles over them.
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private final int minSamples;
+    private int index;
+    private int size;
+
+    /**
+     * Create a LatencyTracker instance.
+     *
+     * @param capacity   The amount of most recent samples to keep.
+     * @param minSamples The minimum amount of samples required to compute percentiles.
+     */
+    public LatencyTracker(int capacity, int minSamples) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be greater than 0");
+        }
+        this.samples = new long[capacity];
+        this.minSamples = Math.max(1, minSamples);
+    }
+
+    /**
+     * Record a latency sample.
+     *
+     * @param latencyMillis The latency in milliseconds.
+     */
+    public synchronized void record(long latencyMillis) {
+        samples[index] = latencyMillis;
+        index = (index + 1) % samples.length;
+        if (size < samples.length) size++;
+    }
+
+    /**
+     * Gets the latency at the given percentile of recorded samples.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The latency in milliseconds, -1 if not enough samples recorded.
+     */
+    public synchronized long percentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 1");
+        }
+        if (size < minSamples) return -1;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * size) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.List;
 
 class CrowdinOTATest {
 
@@ -60,4 +61,17 @@ class CrowdinOTATest {
         //System.out.println(actualContent);
         Assertions.assertEquals(fileContent, actualContent);
     }
-}
\ No newline at end of file
+
+    @Test
+    void selectEvictions() {
+        CrowdinOTA.CacheEntry recent = new CrowdinOTA.CacheEntry(null, "zh-CN", 10, 3);
+        CrowdinOTA.CacheEntry oldest = new CrowdinOTA.CacheEntry(null, "uk", 10, 1);
+        CrowdinOTA.CacheEntry older = new CrowdinOTA.CacheEntry(null, "de", 10, 2);
+        List<CrowdinOTA.CacheEntry> entries = List.of(recent, oldest, older);
+        // Least recently used first, until the total size fits the quota
+        Assertions.assertEquals(List.of(oldest, older), CrowdinOTA.selectEvictions(entries, 15));
+        Assertions.assertEquals(List.of(oldest), CrowdinOTA.selectEvictions(entries, 20));
+        Assertions.assertEquals(List.of(), CrowdinOTA.selectEvictions(entries, 30));
+        Assertions.assertEquals(List.of(), CrowdinOTA.selectEvictions(entries, 0));
+    }
+}
@@ -0,0 +1,251 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.event.LocaleChangeEvent;
+import com.ghostchu.crowdin.exception.OTAException;
+import com.ghostchu.crowdin.parser.JsonTranslationParser;
+import com.ghostchu.crowdin.storage.CacheStorage;
+import com.ghostchu.crowdin.storage.DiskCacheStorage;
+import com.ghostchu.crowdin.storage.MemoryCacheStorage;
+import com.ghostchu.crowdin.storage.MemoryCacheStorageProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+class OTAFileCacheTest {
+
+    @Test
+    void writeAndRead() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(folder);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.NOT_CACHED, cache.getCacheStatus("zh-CN", 1));
+            cache.writeCache("zh-CN", "test: 测试", 1);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.WORKING, cache.getCacheStatus("zh-CN", 1));
+            Assertions.assertEquals(OTAFileCache.CacheStatus.CACHE_EXPIRED, cache.getCacheStatus("zh-CN", 2));
+            Assertions.assertEquals("test: 测试", cache.readCache("zh-CN", 1, false));
+            Assertions.assertNull(cache.readCache("zh-CN", 2, false));
+            // Reload from disk
+            OTAFileCache reloaded = new OTAFileCache(folder);
+            Assertions.assertEquals("test: 测试", reloaded.readCache("zh-CN", 1, false));
+            // No temp files left
+            Assertions.assertArrayEquals(new String[0], folder.list((dir, name) -> name.endsWith(".tmp")));
+            // Modified on disk
+            Files.writeString(new File(folder, "zh-CN").toPath(), "modified", StandardCharsets.UTF_8);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.CACHE_INVALID, new OTAFileCache(folder).getCacheStatus("zh-CN", 1));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void batch() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(folder, FsyncPolicy.BATCH);
+            cache.beginBatch();
+            cache.writeCache("zh-CN", "a", 1);
+            cache.writeCache("uk", "b", 1);
+            // Readable immediately, but not written into storage until the batch committed
+            Assertions.assertEquals("a", cache.readCache("zh-CN", 1, false));
+            Assertions.assertFalse(new File(folder, "zh-CN").exists());
+            Assertions.assertNull(new OTAFileCache(folder).readCache("zh-CN", 1, false));
+            cache.endBatch();
+            Assertions.assertEquals("a", cache.readCache("zh-CN", 1, false));
+            Assertions.assertEquals("b", new OTAFileCache(folder).readCache("uk", 1, false));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void refreshDuringBatch() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(folder, FsyncPolicy.BATCH);
+            cache.writeCache("uk", "old", 1);
+            // The startup refresh is still downloading in background
+            cache.beginBatch();
+            cache.writeCache("zh-CN", "hot", 2);
+            cache.commit();
+            // A refresh completes while the batch still open
+            cache.writeCache("uk", "new", 2);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.WORKING, cache.getCacheStatus("uk", 2));
+            Assertions.assertEquals("new", cache.readCache("uk", 2, false));
+            // Large batches are flushed in groups
+            for (int i = 0; i < 16; i++) {
+                cache.writeCache("locale-" + i, "content", 2);
+            }
+            Assertions.assertEquals("new", new OTAFileCache(folder).readCache("uk", 2, false));
+            cache.endBatch();
+            Assertions.assertEquals("content", new OTAFileCache(folder).readCache("locale-15", 2, false));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void contentMemoryBounded() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(new DiskCacheStorage(folder, FsyncPolicy.NONE), 2);
+            for (int i = 0; i < 4; i++) {
+                cache.writeCache("locale-" + i, "content-" + i, 1);
+            }
+            // Status checks don't keep content in memory, modifications still detected
+            Files.writeString(new File(folder, "locale-1").toPath(), "modified", StandardCharsets.UTF_8);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.CACHE_INVALID, cache.getCacheStatus("locale-1", 1));
+            // The lookup returns the verified content and keeps it in memory until pushed out by other reads
+            OTAFileCache.CacheLookup lookup = cache.lookup("locale-0", 2);
+            Assertions.assertEquals(OTAFileCache.CacheStatus.CACHE_EXPIRED, lookup.status());
+            Assertions.assertArrayEquals("content-0".getBytes(StandardCharsets.UTF_8), lookup.content());
+            Files.writeString(new File(folder, "locale-0").toPath(), "modified", StandardCharsets.UTF_8);
+            Assertions.assertEquals("content-0", cache.readCache("locale-0", 1, false));
+            cache.readCache("locale-2", 1, false);
+            cache.readCache("locale-3", 1, false);
+            Assertions.assertNull(cache.readCache("locale-0", 1, false));
+            Assertions.assertEquals(OTAFileCache.CacheStatus.CACHE_INVALID, cache.lookup("locale-0", 1).status());
+            Assertions.assertNull(cache.lookup("locale-0", 1).content());
+            Assertions.assertEquals(OTAFileCache.CacheStatus.NOT_CACHED, cache.lookup("uk", 1).status());
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void accessCounts() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(folder);
+            Assertions.assertFalse(cache.isAccessDirty());
+            cache.recordAccess("zh-CN");
+            cache.recordAccess("zh-CN");
+            Assertions.assertTrue(cache.isAccessDirty());
+            cache.saveAccessMemory();
+            Assertions.assertFalse(cache.isAccessDirty());
+            Assertions.assertEquals(2, new OTAFileCache(folder).getAccessCount("zh-CN"));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void retainLocales() throws OTAException, IOException {
+        CacheStorage storage = new MemoryCacheStorageProvider().open("/example.yml");
+        OTAFileCache cache = new OTAFileCache(storage);
+        cache.writeCache("zh-CN", "a", 1);
+        cache.writeCache("uk", "b", 1);
+        // Left by a crash, never logged into memory
+        storage.write(Map.of("orphan", new byte[]{1}));
+        Assertions.assertEquals(2, cache.retainLocales(List.of("zh-CN")));
+        Assertions.assertEquals(Set.of("zh-CN"), storage.list().keySet());
+        Assertions.assertEquals(OTAFileCache.CacheStatus.NOT_CACHED, cache.getCacheStatus("uk", 1));
+        Assertions.assertFalse(cache.isEvicted("uk"));
+        Assertions.assertEquals("a", cache.readCache("zh-CN", 1, false));
+    }
+
+    @Test
+    void evict() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(folder);
+            cache.writeCache("zh-CN", "a", 1);
+            cache.evict("zh-CN");
+            cache.saveMemory();
+            Assertions.assertEquals(OTAFileCache.CacheStatus.NOT_CACHED, cache.getCacheStatus("zh-CN", 1));
+            Assertions.assertFalse(new File(folder, "zh-CN").exists());
+            // Remembered across restarts, until downloaded again
+            OTAFileCache reloaded = new OTAFileCache(folder);
+            Assertions.assertTrue(reloaded.isEvicted("zh-CN"));
+            reloaded.writeCache("zh-CN", "a", 2);
+            Assertions.assertFalse(reloaded.isEvicted("zh-CN"));
+            Assertions.assertFalse(new OTAFileCache(folder).isEvicted("zh-CN"));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void changeEvents() {
+        List<LocaleChangeEvent> events = new ArrayList<>();
+        OTAFileCache json = new OTAFileCache(new MemoryCacheStorage("/example.json"));
+        json.setCommitListener((code, oldContent, newContent) -> events.add(
+                OTAFileInstance.computeChanges("/example.json", code, new JsonTranslationParser(), oldContent, newContent)));
+        json.writeCache("zh-CN", "{\"a\": \"1\", \"b\": \"2\"}", 1);
+        json.writeCache("zh-CN", "{\"a\": \"1\", \"b\": \"3\", \"c\": \"4\"}", 2);
+        json.writeCache("zh-CN", "{\"a\": \"1\", \"c\": \"4\"}", 3);
+        // Unchanged content
+        json.writeCache("zh-CN", "{\"a\": \"1\", \"c\": \"4\"}", 4);
+        Assertions.assertEquals(4, events.size());
+        Assertions.assertEquals(Map.of("a", "1", "b", "2"), events.get(0).getAdded());
+        LocaleChangeEvent changed = events.get(1);
+        Assertions.assertTrue(changed.isKeyLevel());
+        Assertions.assertEquals("zh-CN", changed.getCrowdinSyntaxCode());
+        Assertions.assertEquals(Map.of("c", "4"), changed.getAdded());
+        Assertions.assertEquals(Map.of("b", "3"), changed.getChanged());
+        Assertions.assertEquals(Map.of(), changed.getRemoved());
+        Assertions.assertEquals(Map.of("b", "3"), events.get(2).getRemoved());
+        Assertions.assertNull(events.get(3));
+        // No parser for the file extension, the whole locale changed
+        events.clear();
+        OTAFileCache yaml = new OTAFileCache(new MemoryCacheStorage("/example.yml"));
+        yaml.setCommitListener((code, oldContent, newContent) -> events.add(
+                OTAFileInstance.computeChanges("/example.yml", code, new OTAOptions().getTranslationParser("/example.yml"), oldContent, newContent)));
+        yaml.writeCache("uk", "a: 1", 1);
+        yaml.writeCache("uk", "a: 2", 2);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertFalse(events.get(1).isKeyLevel());
+        Assertions.assertFalse(events.get(1).isEmpty());
+        Assertions.assertEquals("/example.yml", events.get(1).getFileName());
+    }
+
+    @Test
+    void changeEventsKeepHotContent() throws OTAException, IOException {
+        File folder = Files.createTempDirectory("crowdinota").toFile();
+        try {
+            OTAFileCache cache = new OTAFileCache(new DiskCacheStorage(folder, FsyncPolicy.NONE), 1);
+            cache.writeCache("zh-CN", "hot", 1);
+            cache.writeCache("uk", "old", 1);
+            Assertions.assertEquals("hot", cache.readCache("zh-CN", 1, false));
+            List<String> replaced = new ArrayList<>();
+            cache.setCommitListener((code, oldContent, newContent) -> replaced.add(new String(oldContent, StandardCharsets.UTF_8)));
+            cache.writeCache("uk", "new", 2);
+            Assertions.assertEquals(List.of("old"), replaced);
+            // Reading the replaced content didn't push the hot locale out of memory
+            Files.writeString(new File(folder, "zh-CN").toPath(), "modified", StandardCharsets.UTF_8);
+            Assertions.assertEquals("hot", cache.readCache("zh-CN", 1, false));
+        } finally {
+            delete(folder);
+        }
+    }
+
+    @Test
+    void memoryStorage() throws OTAException, IOException {
+        MemoryCacheStorageProvider provider = new MemoryCacheStorageProvider();
+        CacheStorage storage = provider.open("/example.yml");
+        OTAFileCache cache = new OTAFileCache(storage);
+        cache.writeCache("zh-CN", "test: 测试", 1);
+        Assertions.assertEquals("test: 测试", cache.readCache("zh-CN", 1, false));
+        // Indexes are kept in the cache only
+        Assertions.assertNull(storage.loadIndex("memory"));
+        Assertions.assertEquals(1, provider.retainFiles(List.of()));
+    }
+
+    private static void delete(File folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder.toPath())) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import com.ghostchu.crowdin.storage.CacheStorageProvider;
+import com.ghostchu.crowdin.storage.DiskCacheStorageProvider;
+import com.ghostchu.crowdin.storage.MemoryCacheStorageProvider;
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+class OTAFileInstanceTest {
+    private TestDistribution distribution;
+    private UnirestInstance unirest;
+    private File folder;
+    private final List<CrowdinOTA> instances = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        distribution = new TestDistribution()
+                .content("zh-CN", "{\"test\": \"测试\"}")
+                .content("uk", "{\"test\": \"old\"}")
+                .content("de", "{\"test\": \"Test\"}");
+        unirest = Unirest.spawnInstance();
+        folder = Files.createTempDirectory("crowdinota").toFile();
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException, InterruptedException {
+        // Releases the held responses
+        distribution.close();
+        for (CrowdinOTA crowdinOTA : instances) {
+            for (String fileName : crowdinOTA.getOtaInstance().listFiles()) {
+                crowdinOTA.getOtaInstance().getFileInstance(fileName).getInitialDownload().exceptionally(e -> null).join();
+            }
+            crowdinOTA.close();
+            // Queued background work still writes into the cache folder
+            crowdinOTA.refreshExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        unirest.shutDown();
+        try (Stream<Path> paths = Files.walk(folder.toPath())) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private CrowdinOTA create(CacheStorageProvider storageProvider, OTAOptions options) throws Exception {
+        // Startup must never block on the held responses unless waiting for them
+        CrowdinOTA crowdinOTA = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new CrowdinOTA(distribution.getUrl(), storageProvider, unirest, options.setSnapshotResource(null));
+            } catch (OTAException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(10, TimeUnit.SECONDS);
+        instances.add(crowdinOTA);
+        return crowdinOTA;
+    }
+
+    private CrowdinOTA createOnDisk(OTAOptions options) throws Exception {
+        return create(new DiskCacheStorageProvider(folder, FsyncPolicy.NONE), options);
+    }
+
+    private static OTAFileInstance file(CrowdinOTA crowdinOTA) {
+        return crowdinOTA.getOtaInstance().getFileInstance(TestDistribution.FILE);
+    }
+
+    @Test
+    void sortByPriority() throws Exception {
+        OTAFileInstance fileInstance = file(create(new MemoryCacheStorageProvider(), new OTAOptions().setHotLocales(List.of("de"))));
+        fileInstance.getLocaleContentByCrowdinCode("uk");
+        fileInstance.getLocaleContentByCrowdinCode("uk");
+        fileInstance.getLocaleContentByCrowdinCode("zh-CN");
+        fileInstance.getLocaleContentByCrowdinCode("fr");
+        // Hot locales first, then the most accessed, unknown locales never counted
+        Assertions.assertEquals(List.of("de", "uk", "zh-CN", "fr"), fileInstance.sortByPriority(List.of("fr", "zh-CN", "uk", "de")));
+        Assertions.assertEquals(0, fileInstance.getFileCache().getAccessCount("fr"));
+    }
+
+    @Test
+    void hotSetReady() throws Exception {
+        CountDownLatch uk = distribution.block("uk", -1);
+        CrowdinOTA crowdinOTA = create(new MemoryCacheStorageProvider(), new OTAOptions()
+                .setHotLocales(List.of("zh-CN"))
+                .setHotSetSize(0));
+        OTAFileInstance fileInstance = file(crowdinOTA);
+        // Returned once the hot locale downloaded, the others keep downloading in background
+        Assertions.assertEquals("{\"test\": \"测试\"}", fileInstance.getLocaleContentByCrowdinCode("zh-CN"));
+        Assertions.assertFalse(fileInstance.getInitialDownload().isDone());
+        Assertions.assertNull(fileInstance.getLocaleContentByCrowdinCode("uk"));
+        uk.countDown();
+        fileInstance.getInitialDownload().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals("{\"test\": \"old\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals(1, distribution.getRequests("uk"));
+    }
+
+    @Test
+    void close() throws Exception {
+        // The maintenance saves the access counts too
+        CrowdinOTA crowdinOTA = createOnDisk(new OTAOptions().setCacheMaintenance(false));
+        OTAFileInstance fileInstance = file(crowdinOTA);
+        fileInstance.getLocaleContentByCrowdinCode("uk");
+        Assertions.assertTrue(fileInstance.getFileCache().isAccessDirty());
+        crowdinOTA.close();
+        Assertions.assertTrue(crowdinOTA.scheduler.isShutdown());
+        Assertions.assertTrue(crowdinOTA.refreshExecutor.isShutdown());
+        Assertions.assertFalse(fileInstance.getFileCache().isAccessDirty());
+        // Still readable from cache
+        Assertions.assertEquals("{\"test\": \"old\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals(1, file(createOnDisk(new OTAOptions())).getFileCache().getAccessCount("uk"));
+    }
+
+    /**
+     * Download the distribution into the cache folder, then publish a newer uk locale.
+     */
+    private void publishNewUk() throws Exception {
+        createOnDisk(new OTAOptions()).close();
+        distribution.timestamp(2).content("uk", "{\"test\": \"new\"}");
+    }
+
+    @Test
+    void staleWhileRevalidate() throws Exception {
+        publishNewUk();
+        CountDownLatch uk = distribution.block("uk", -1);
+        OTAFileInstance fileInstance = file(createOnDisk(new OTAOptions().setHotSetSize(0)));
+        Assertions.assertTrue(TestDistribution.await(() -> distribution.getRequests("uk") == 2));
+        // Served stale while refreshing, the reads join the running refresh
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("{\"test\": \"old\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        }
+        Assertions.assertEquals(2, distribution.getRequests("uk"));
+        uk.countDown();
+        fileInstance.getInitialDownload().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals("{\"test\": \"new\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+    }
+
+    @Test
+    void maxStaleness() throws Exception {
+        publishNewUk();
+        CountDownLatch uk = distribution.block("uk", -1);
+        // The test manifests are published in 1970, far beyond the max staleness
+        OTAFileInstance fileInstance = file(createOnDisk(new OTAOptions()
+                .setHotSetSize(0)
+                .setMaxStaleness(Duration.ofMinutes(1))
+                .setRefreshWaitTimeout(Duration.ofSeconds(1))));
+        // Waits for the refresh, then serves stale instead of blocking on the held response
+        long start = System.nanoTime();
+        Assertions.assertEquals("{\"test\": \"old\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+        // Refreshed while waiting
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            uk.countDown();
+        }).start();
+        Assertions.assertEquals("{\"test\": \"new\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals(2, distribution.getRequests("uk"));
+    }
+
+    @Test
+    void refreshRetryInterval() throws Exception {
+        distribution.status("uk", 500);
+        OTAFileInstance fileInstance = file(create(new MemoryCacheStorageProvider(), new OTAOptions()));
+        Assertions.assertEquals(1, distribution.getRequests("uk"));
+        // Not cached, refreshed in background
+        Assertions.assertNull(fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertTrue(TestDistribution.await(() -> distribution.getRequests("uk") == 2));
+        // Failed recently, not retried until the retry interval passed
+        Assertions.assertNull(fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertNull(fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Thread.sleep(200);
+        Assertions.assertEquals(2, distribution.getRequests("uk"));
+    }
+
+    @Test
+    void fallbackLocale() throws Exception {
+        distribution.status("uk", 500);
+        OTAFileInstance fileInstance = file(create(new MemoryCacheStorageProvider(), new OTAOptions().setFallbackLocale("zh-CN")));
+        Assertions.assertEquals("{\"test\": \"测试\"}", fileInstance.getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals("{\"test\": \"Test\"}", fileInstance.getLocaleContentByCrowdinCode("de"));
+    }
+
+    @Test
+    void hedgeSlowRequest() throws Exception {
+        CountDownLatch uk = distribution.block("uk", 1);
+        // Waits for all locales, only completes with the hedged request
+        CrowdinOTA crowdinOTA = create(new MemoryCacheStorageProvider(), new OTAOptions()
+                .setHedgePercentile(0.95)
+                .setInitialHedgeDelay(Duration.ofMillis(50)));
+        Assertions.assertEquals("{\"test\": \"old\"}", file(crowdinOTA).getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals(2, distribution.getRequests("uk"));
+        // The losing request still in flight holds the permit
+        Assertions.assertEquals(3, crowdinOTA.hedgePermits.availablePermits());
+        uk.countDown();
+        Assertions.assertTrue(TestDistribution.await(() -> crowdinOTA.hedgePermits.availablePermits() == 4));
+    }
+
+    @Test
+    void hedgeBudget() throws Exception {
+        CountDownLatch uk = distribution.block("uk", 1);
+        CountDownLatch de = distribution.block("de", 1);
+        CrowdinOTA crowdinOTA = create(new MemoryCacheStorageProvider(), new OTAOptions()
+                .setHotSetSize(0)
+                .setHedgePercentile(0.95)
+                .setInitialHedgeDelay(Duration.ofMillis(50))
+                .setHedgeBudget(1));
+        // Both slow, only one of them hedged
+        Assertions.assertTrue(TestDistribution.await(() -> distribution.getRequests("uk") + distribution.getRequests("de") == 3));
+        Thread.sleep(300);
+        Assertions.assertEquals(3, distribution.getRequests("uk") + distribution.getRequests("de"));
+        Assertions.assertFalse(file(crowdinOTA).getInitialDownload().isDone());
+        uk.countDown();
+        de.countDown();
+        file(crowdinOTA).getInitialDownload().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals("{\"test\": \"old\"}", file(crowdinOTA).getLocaleContentByCrowdinCode("uk"));
+        Assertions.assertEquals("{\"test\": \"Test\"}", file(crowdinOTA).getLocaleContentByCrowdinCode("de"));
+        Assertions.assertTrue(TestDistribution.await(() -> crowdinOTA.hedgePermits.availablePermits() == 1));
+    }
+}
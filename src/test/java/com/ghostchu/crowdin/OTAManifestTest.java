@@ -0,0 +1,63 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+class OTAManifestTest {
+
+    private static final String MANIFEST = """
+            {
+              "files": ["/lang/%locale%/messages.yml", "/lang/%locale%/items.yml"],
+              "languages": ["zh-CN", "uk"],
+              "language_mapping": {"uk": {"locale": "uk-UA"}},
+              "custom_languages": [],
+              "timestamp": 1672145672,
+              "content": {
+                "zh-CN": ["/content/lang/zh-CN/messages.yml", "/content/lang/zh-CN/items.yml"],
+                "uk": ["/content/lang/uk/messages.yml"]
+              },
+              "mapping": ["/mapping/lang/messages.yml"]
+            }
+            """;
+
+    @Test
+    void parse() throws OTAException {
+        OTAManifest manifest = OTAManifest.parse(new StringReader(MANIFEST));
+        Assertions.assertEquals(1672145672L, manifest.getTimestamp());
+        Assertions.assertEquals(List.of("/lang/%locale%/messages.yml", "/lang/%locale%/items.yml"), manifest.getFiles());
+        Assertions.assertEquals(List.of("zh-CN", "uk"), manifest.getLocales());
+        Assertions.assertEquals("/content/lang/uk/messages.yml", manifest.getPath("uk", 0));
+        Assertions.assertNull(manifest.getPath("uk", 1));
+        Assertions.assertEquals(Map.of("zh-CN", "/content/lang/zh-CN/items.yml"), manifest.getFilePaths(1));
+        Assertions.assertEquals("uk-UA", manifest.getLanguageMapping().get("uk").get("locale"));
+    }
+
+    @Test
+    void writeAndParse() throws OTAException, IOException {
+        OTAManifest manifest = OTAManifest.parse(new StringReader(MANIFEST));
+        StringWriter writer = new StringWriter();
+        manifest.write(writer);
+        OTAManifest parsed = OTAManifest.parse(new StringReader(writer.toString()));
+        Assertions.assertEquals(manifest.getTimestamp(), parsed.getTimestamp());
+        Assertions.assertEquals(manifest.getFiles(), parsed.getFiles());
+        Assertions.assertEquals(manifest.getLocales(), parsed.getLocales());
+        Assertions.assertEquals(manifest.getFilePaths(0), parsed.getFilePaths(0));
+        Assertions.assertEquals(manifest.getFilePaths(1), parsed.getFilePaths(1));
+        Assertions.assertEquals(manifest.getLanguageMapping(), parsed.getLanguageMapping());
+    }
+
+    @Test
+    void parseInvalid() {
+        Assertions.assertThrows(OTAException.class, () -> OTAManifest.parse(new StringReader("[]")));
+        Assertions.assertThrows(OTAException.class, () -> OTAManifest.parse(new StringReader("{\"files\": []}")));
+        Assertions.assertThrows(OTAException.class, () -> OTAManifest.parse(new StringReader("{\"files\": [], \"content\": {\"uk\": \"x\"}}")));
+        Assertions.assertThrows(OTAException.class, () -> OTAManifest.parse(new StringReader("{\"files\": [")));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ghostchu.crowdin;
+
+import com.ghostchu.crowdin.exception.OTAException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+class OTASnapshotTest {
+
+    private static final String MANIFEST = """
+            {
+              "files": ["/lang/%locale%/messages.yml"],
+              "language_mapping": {"uk": {"locale": "uk-UA"}},
+              "timestamp": 1672145672,
+              "content": {
+                "zh-CN": ["/content/lang/zh-CN/messages.yml"],
+                "uk": ["/content/lang/uk/messages.yml"]
+              }
+            }
+            """;
+
+    @Test
+    void writeAndRead() throws OTAException, IOException {
+        OTAManifest manifest = OTAManifest.parse(new StringReader(MANIFEST));
+        OTASnapshot snapshot = new OTASnapshot("https://distributions.crowdin.net/example", manifest, Map.of(
+                "/lang/%locale%/messages.yml", Map.of("zh-CN", "test: 测试".getBytes(StandardCharsets.UTF_8))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.write(out);
+        OTASnapshot read = OTASnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        Assertions.assertEquals("https://distributions.crowdin.net/example", read.getDistributionUrl());
+        Assertions.assertEquals(1672145672L, read.getManifest().getTimestamp());
+        Assertions.assertEquals("uk-UA", read.getManifest().getLanguageMapping().get("uk").get("locale"));
+        Map<String, byte[]> contents = read.getLocaleContents("/lang/%locale%/messages.yml");
+        Assertions.assertEquals(1, contents.size());
+        Assertions.assertEquals("test: 测试", new String(contents.get("zh-CN"), StandardCharsets.UTF_8));
+        Assertions.assertTrue(read.getLocaleContents("/unknown.yml").isEmpty());
+    }
+
+    @Test
+    void readInvalid() throws OTAException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(new byte[]{1, 2, 3, 4});
+        }
+        Assertions.assertThrows(OTAException.class, () -> OTASnapshot.read(new ByteArrayInputStream(out.toByteArray())));
+        Assertions.assertNull(OTASnapshot.load(OTASnapshotTest.class.getClassLoader(), "missing-snapshot.bin"));
+    }
+}
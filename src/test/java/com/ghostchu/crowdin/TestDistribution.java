@@ -0,0 +1,144 @@
+package com.ghostchu.crowdin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A Crowdin distribution of a single file served from localhost, the responses of each locale can be delayed or failed.
+ */
+class TestDistribution implements AutoCloseable {
+    static final String FILE = "/example.json";
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, String> contents = new ConcurrentHashMap<>();
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private volatile long timestamp = 1;
+
+    TestDistribution() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/manifest.json", exchange -> respond(exchange, 200, manifest()));
+        server.createContext("/content/", this::handleContent);
+        server.start();
+    }
+
+    /**
+     * Gets the distribution URL without trailing slash.
+     */
+    String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Publish the content of the locale, takes effect on the next manifest request.
+     */
+    TestDistribution content(String locale, String content) {
+        contents.put(locale, content);
+        return this;
+    }
+
+    TestDistribution timestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    /**
+     * Respond the locale with the status code instead of the content.
+     */
+    TestDistribution status(String locale, int status) {
+        statuses.put(locale, status);
+        return this;
+    }
+
+    /**
+     * Hold the responses of the locale until the returned latch released.
+     *
+     * @param count The amount of next requests to hold, negative for all requests.
+     */
+    CountDownLatch block(String locale, int count) {
+        Block block = new Block(new CountDownLatch(1), new AtomicInteger(count));
+        blocks.put(locale, block);
+        return block.latch;
+    }
+
+    int getRequests(String locale) {
+        AtomicInteger counter = requests.get(locale);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private String manifest() {
+        StringBuilder content = new StringBuilder();
+        contents.keySet().forEach(locale -> {
+            if (!content.isEmpty()) content.append(", ");
+            content.append('"').append(locale).append("\": [\"/content/").append(locale).append(FILE).append("\"]");
+        });
+        return "{\"files\": [\"" + FILE + "\"], \"language_mapping\": {}, \"timestamp\": " + timestamp
+                + ", \"content\": {" + content + "}}";
+    }
+
+    private void handleContent(HttpExchange exchange) throws IOException {
+        // /content/<locale>/example.json
+        String locale = exchange.getRequestURI().getPath().split("/")[2];
+        requests.computeIfAbsent(locale, key -> new AtomicInteger()).incrementAndGet();
+        Block block = blocks.get(locale);
+        if (block != null && block.remaining.getAndDecrement() != 0) {
+            try {
+                block.latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Integer status = statuses.get(locale);
+        if (status != null) {
+            respond(exchange, status, "");
+        } else {
+            respond(exchange, 200, contents.getOrDefault(locale, ""));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Wait until the condition satisfied, for the work done in background.
+     */
+    static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        blocks.values().forEach(block -> block.latch.countDown());
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private record Block(CountDownLatch latch, AtomicInteger remaining) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.ghostchu.crowdin.event;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class LocaleChangeEventTest {
+
+    @Test
+    void diff() {
+        LocaleChangeEvent event = LocaleChangeEvent.diff("messages.json", "zh-CN",
+                Map.of("kept", "a", "changed", "old", "removed", "gone"),
+                Map.of("kept", "a", "changed", "new", "added", "here"));
+        Assertions.assertTrue(event.isKeyLevel());
+        Assertions.assertFalse(event.isEmpty());
+        Assertions.assertEquals(Map.of("added", "here"), event.getAdded());
+        Assertions.assertEquals(Map.of("removed", "gone"), event.getRemoved());
+        Assertions.assertEquals(Map.of("changed", "new"), event.getChanged());
+    }
+
+    @Test
+    void diffUnchanged() {
+        Assertions.assertTrue(LocaleChangeEvent.diff("messages.json", "zh-CN", Map.of("a", "b"), Map.of("a", "b")).isEmpty());
+    }
+}
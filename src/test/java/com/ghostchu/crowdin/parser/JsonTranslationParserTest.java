@@ -0,0 +1,24 @@
+package com.ghostchu.crowdin.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+class JsonTranslationParserTest {
+
+    @Test
+    void parse() throws IOException {
+        Map<String, String> keys = new JsonTranslationParser().parse(new StringReader("""
+                {"example1": {"example2": {"test": "Hello"}}, "list": ["a", "b"], "enabled": true, "empty": null}
+                """));
+        Assertions.assertEquals(Map.of("example1.example2.test", "Hello", "list.0", "a", "list.1", "b", "enabled", "true"), keys);
+    }
+
+    @Test
+    void parseInvalid() {
+        Assertions.assertThrows(IOException.class, () -> new JsonTranslationParser().parse(new StringReader("{\"a\": ")));
+    }
+}
@@ -0,0 +1,28 @@
+package com.ghostchu.crowdin.parser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+class PropertiesTranslationParserTest {
+
+    @Test
+    void parse() throws IOException {
+        Map<String, String> keys = new PropertiesTranslationParser().parse(new StringReader("""
+                # comment
+                example.test=Hello
+                escaped=\\u6d4b\\u8bd5
+                multi=a \\
+                  b
+                """));
+        Assertions.assertEquals(Map.of("example.test", "Hello", "escaped", "测试", "multi", "a b"), keys);
+    }
+
+    @Test
+    void parseInvalid() {
+        Assertions.assertThrows(IOException.class, () -> new PropertiesTranslationParser().parse(new StringReader("a=\\u00zz")));
+    }
+}
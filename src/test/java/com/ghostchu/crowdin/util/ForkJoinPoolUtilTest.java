@@ -3,10 +3,29 @@ package com.ghostchu.crowdin.util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 class ForkJoinPoolUtilTest {
 
     @Test
     void createExecutorService() {
         Assertions.assertThrows(IllegalArgumentException.class, () -> ForkJoinPoolUtil.createExecutorService(0));
     }
+
+    @Test
+    void createDaemonExecutorService() throws Exception {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ForkJoinPoolUtil.createDaemonExecutorService(0, "test"));
+        ExecutorService service = ForkJoinPoolUtil.createDaemonExecutorService(1, "test");
+        Assertions.assertTrue(service.submit(() -> Thread.currentThread().isDaemon()).get());
+        service.shutdown();
+    }
+
+    @Test
+    void createDaemonScheduledExecutorService() throws Exception {
+        ScheduledExecutorService service = ForkJoinPoolUtil.createDaemonScheduledExecutorService("test");
+        Assertions.assertTrue(service.schedule(() -> Thread.currentThread().isDaemon(), 1, TimeUnit.MILLISECONDS).get());
+        service.shutdown();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.ghostchu.crowdin.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+    @Test
+    void percentile() {
+        LatencyTracker tracker = new LatencyTracker(100, 10);
+        Assertions.assertEquals(-1, tracker.percentile(0.95));
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        Assertions.assertEquals(95, tracker.percentile(0.95));
+        Assertions.assertEquals(50, tracker.percentile(0.5));
+        Assertions.assertEquals(1, tracker.percentile(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tracker.percentile(2));
+    }
+
+    @Test
+    void evictOldest() {
+        LatencyTracker tracker = new LatencyTracker(2, 1);
+        tracker.record(1000);
+        tracker.record(10);
+        tracker.record(20);
+        Assertions.assertEquals(20, tracker.percentile(1));
+    }
+}